@@ -0,0 +1,69 @@
+package com.example.book;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.book.appointment.dto.AppointmentPageDTO;
+import com.example.book.appointment.dto.AppointmentReturnDTO;
+import com.example.book.appointment.enums.AppointmentStatus;
+
+import tools.jackson.databind.json.JsonMapper;
+
+//Listing pages are projected straight into AppointmentReturnDTO by the queries, what is left per row is
+//building the DTO and writing it as JSON
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoSerializationBenchmark {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+    @Param({ "20", "100" })
+    private int pageSize;
+
+    private JsonMapper jsonMapper;
+    private AppointmentPageDTO page;
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        page = new AppointmentPageDTO(rows(), "MjAzMC0wMS0wN1QxNzowMHwxMDA");
+    }
+
+    @Benchmark
+    public List<AppointmentReturnDTO> mapRows() {
+        return rows();
+    }
+
+    @Benchmark
+    public byte[] writePage() {
+        return jsonMapper.writeValueAsBytes(page);
+    }
+
+    private List<AppointmentReturnDTO> rows() {
+        List<AppointmentReturnDTO> rows = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            LocalDateTime start = START.plusMinutes(30L * i);
+            rows.add(new AppointmentReturnDTO(i + 1, "Barbearia Profissional", 1, 1, "Corte", 1, "Matheus", 7,
+                    start, start.plusMinutes(30), AppointmentStatus.SCHEDULED));
+        }
+        return rows;
+    }
+}
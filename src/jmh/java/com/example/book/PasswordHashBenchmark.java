@@ -0,0 +1,45 @@
+package com.example.book;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+//Per-hash latency of each auth.password.algorithm / bcrypt-strength choice on this host
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+    @Param({ "bcrypt-10", "bcrypt-11", "bcrypt-12", "bcrypt-13", "pbkdf2" })
+    private String encoding;
+
+    private PasswordEncoder encoder;
+
+    @Setup
+    public void setUp() {
+        encoder = encoding.equals("pbkdf2")
+                ? Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8()
+                : new BCryptPasswordEncoder(Integer.parseInt(encoding.substring("bcrypt-".length())));
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("senha123");
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.book;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.book.appointment.dto.BusyIntervalDTO;
+import com.example.book.appointment.index.StaffDayBitmap;
+import com.example.book.appointment.index.StaffIntervals;
+import com.example.book.appointment.policy.AppointmentContext;
+import com.example.book.appointment.policy.BarberShopSchedulingPolicy;
+import com.example.book.business.enums.BusinessType;
+import com.example.book.business.model.Business;
+import com.example.book.business.model.WorkingHours;
+import com.example.book.business.schedule.CompiledSchedule;
+import com.example.book.servicecatalog.model.ServiceCatalog;
+import com.example.book.staff.model.Staff;
+
+//Booking checks against one staff holding N scheduled appointments, 16 back to back 30 minute slots per day
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulingBenchmark {
+
+    private static final int PER_DAY = 16;
+    private static final int SLOT_MINUTES = 30;
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2100, 1, 4);
+
+    @Param({ "10", "1000", "100000" })
+    private int appointmentsPerStaff;
+
+    private StaffIntervals intervals;
+    private LocalDate probeDay;
+    private LocalDateTime busyStart;
+    private LocalDateTime freeStart;
+    private AppointmentContext conflictingContext;
+    private AppointmentContext validContext;
+    private final BarberShopSchedulingPolicy policy = new BarberShopSchedulingPolicy();
+
+    @Setup
+    public void setUp() {
+        List<BusyIntervalDTO> busy = new ArrayList<>(appointmentsPerStaff);
+        for (int i = 0; i < appointmentsPerStaff; i++) {
+            LocalDateTime start = FIRST_DAY.plusDays(i / PER_DAY).atTime(9, 0)
+                    .plusMinutes((long) (i % PER_DAY) * SLOT_MINUTES);
+            busy.add(new BusyIntervalDTO(i + 1, 1, start, start.plusMinutes(SLOT_MINUTES)));
+        }
+        intervals = StaffIntervals.of(busy);
+
+        //Middle day of the range, the worst case for the binary searches
+        probeDay = FIRST_DAY.plusDays((appointmentsPerStaff - 1) / PER_DAY / 2);
+        busyStart = probeDay.atTime(10, 0);
+        freeStart = probeDay.atTime(18, 0);
+
+        Business business = new Business("Barbearia Profissional", BusinessType.BARBER);
+        business.setId(1);
+        Staff staff = new Staff(null, "Matheus", business);
+        staff.setId(1);
+        ServiceCatalog service = new ServiceCatalog("Corte", SLOT_MINUTES, BigDecimal.TEN, business);
+        service.setId(1);
+
+        List<WorkingHours> week = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            week.add(new WorkingHours(day, LocalTime.of(8, 0), LocalTime.of(20, 0), business));
+        }
+        CompiledSchedule schedule = CompiledSchedule.compile(week, List.of());
+        StaffDayBitmap bookedSlots = intervals.rasterize(probeDay, 1);
+
+        conflictingContext = new AppointmentContext(business, staff, service, busyStart,
+                busyStart.plusMinutes(SLOT_MINUTES), schedule, bookedSlots);
+        validContext = new AppointmentContext(business, staff, service, freeStart,
+                freeStart.plusMinutes(SLOT_MINUTES), schedule, bookedSlots);
+    }
+
+    @Benchmark
+    public StaffDayBitmap rasterizeDay() {
+        return intervals.rasterize(probeDay, 1);
+    }
+
+    @Benchmark
+    public boolean hasConflict() {
+        return conflictingContext.hasConflict();
+    }
+
+    @Benchmark
+    public AppointmentContext validateSchedule() {
+        policy.validateSchedule(validContext);
+        return validContext;
+    }
+
+    //Copy-on-write insert into the index, paid once per booking
+    @Benchmark
+    public StaffIntervals indexInsert() {
+        return intervals.with(Integer.MAX_VALUE, freeStart, freeStart.plusMinutes(SLOT_MINUTES));
+    }
+}
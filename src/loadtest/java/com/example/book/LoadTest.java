@@ -0,0 +1,335 @@
+package com.example.book;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+//Synthetic multi-tenant booking workload against a running app. Seeds businesses, staff, services and working
+//hours, then every virtual user logs in as its own client and loops over the request mix with a random think time.
+//Start the app with the loadtest Spring profile first, then: mvn -Pload-test test-compile exec:exec
+public class LoadTest {
+
+    //Weights of each action in the mix, they add up to 100
+    private static final Map<String, Integer> MIX = new LinkedHashMap<>();
+
+    static {
+        MIX.put("login", 5);
+        MIX.put("services", 20);
+        MIX.put("availability", 10);
+        MIX.put("book", 30);
+        MIX.put("cancel", 8);
+        MIX.put("complete", 7);
+        MIX.put("myAppointments", 15);
+        MIX.put("staffAppointments", 5);
+    }
+
+    //Passed as --base-url, --jdbc-url, --businesses, --staff, --services, --clients, --concurrency, --warmup,
+    //--duration (seconds), --think-ms, --booking-days, --bcrypt-strength, --seed and --output
+    public record Options(String baseUrl, String jdbcUrl, String jdbcUser, @JsonIgnore String jdbcPassword,
+            int businesses, int staffPerBusiness, int servicesPerBusiness, int clients, int concurrency,
+            int warmupSeconds, int durationSeconds, int thinkMillis, int bookingDays, int bcryptStrength, long seed,
+            String output) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                if (!args[i].startsWith("--")) {
+                    throw new IllegalArgumentException("Expected --option value, got " + args[i]);
+                }
+                values.put(args[i].substring(2), args[i + 1]);
+            }
+
+            Options options = new Options(
+                    values.getOrDefault("base-url", "http://localhost:8080"),
+                    values.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:5432/book_db"),
+                    values.getOrDefault("jdbc-user", "postgres"),
+                    values.getOrDefault("jdbc-password", "140208"),
+                    Integer.parseInt(values.getOrDefault("businesses", "20")),
+                    Integer.parseInt(values.getOrDefault("staff", "3")),
+                    Integer.parseInt(values.getOrDefault("services", "4")),
+                    Integer.parseInt(values.getOrDefault("clients", "200")),
+                    Integer.parseInt(values.getOrDefault("concurrency", "64")),
+                    Integer.parseInt(values.getOrDefault("warmup", "15")),
+                    Integer.parseInt(values.getOrDefault("duration", "60")),
+                    Integer.parseInt(values.getOrDefault("think-ms", "100")),
+                    Integer.parseInt(values.getOrDefault("booking-days", "14")),
+                    Integer.parseInt(values.getOrDefault("bcrypt-strength", "10")),
+                    Long.parseLong(values.getOrDefault("seed", "42")),
+                    values.getOrDefault("output", "target/loadtest-result.json"));
+
+            if (options.concurrency() > options.clients()) {
+                throw new IllegalArgumentException("--concurrency cannot be larger than --clients");
+            }
+            return options;
+        }
+    }
+
+    private final Options options;
+    private final LoadTestSeeder.Seed seed;
+    private final LoadTestReport report;
+    private final HttpClient http;
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final Map<Integer, String> staffTokens = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    private LoadTest(Options options, LoadTestSeeder.Seed seed, LoadTestReport report) {
+        this.options = options;
+        this.seed = seed;
+        this.report = report;
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+
+        System.out.printf("seeding %d businesses x %d staff x %d services and %d clients%n", options.businesses(),
+                options.staffPerBusiness(), options.servicesPerBusiness(), options.clients());
+        LoadTestSeeder.Seed seed = new LoadTestSeeder(options).seed();
+
+        LoadTestReport report = new LoadTestReport();
+        new LoadTest(options, seed, report).run();
+
+        report.print();
+        report.write(Path.of(options.output()), options);
+    }
+
+    private void run() throws InterruptedException {
+        for (int i = 0; i < seed.staffEmails().size(); i++) {
+            String token = login(seed.staffEmails().get(i));
+            if (token == null) {
+                throw new IllegalStateException("Staff login failed, is the app running with the loadtest profile?");
+            }
+            staffTokens.put(seed.staffUserIds().get(i), token);
+        }
+
+        System.out.printf("running %d virtual users, %d s warmup + %d s measured, ~%d ms think time%n",
+                options.concurrency(), options.warmupSeconds(), options.durationSeconds(), options.thinkMillis());
+
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.concurrency(); i++) {
+                int user = i;
+                users.submit(() -> new VirtualUser(user).loop());
+            }
+
+            TimeUnit.SECONDS.sleep(options.warmupSeconds());
+            report.start();
+            TimeUnit.SECONDS.sleep(options.durationSeconds());
+            report.stop();
+            running = false;
+        }
+    }
+
+    private String login(String email) {
+        HttpResponse<String> response = send("POST /auth/login", post("/auth/login", null,
+                Map.of("email", email, "password", LoadTestSeeder.PASSWORD)));
+        return response != null && response.statusCode() == 201
+                ? json(response).path("token").asString()
+                : null;
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(options.baseUrl() + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest put(String path, String token) {
+        return request(path, token).PUT(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private HttpRequest post(String path, String token, Object body) {
+        return request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(jsonMapper.writeValueAsString(body)))
+                .build();
+    }
+
+    //Null when the request never got a response, that counts as an error too
+    private HttpResponse<String> send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            report.record(endpoint, System.nanoTime() - start, response.statusCode() < 400);
+            return response;
+        } catch (IOException ex) {
+            report.record(endpoint, System.nanoTime() - start, false);
+            return null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private JsonNode json(HttpResponse<String> response) {
+        return jsonMapper.readTree(response.body());
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private record Booking(int appointmentId, int staffId) {
+    }
+
+    private final class VirtualUser {
+
+        private final SplittableRandom random;
+        private final String email;
+        private final Deque<Booking> bookings = new ArrayDeque<>();
+        private final List<String> actions = new ArrayList<>();
+        private String token;
+
+        VirtualUser(int index) {
+            this.random = new SplittableRandom(options.seed() + index);
+            this.email = seed.clientEmails().get(index);
+            MIX.forEach((action, weight) -> {
+                for (int i = 0; i < weight; i++) {
+                    actions.add(action);
+                }
+            });
+        }
+
+        void loop() {
+            token = login(email);
+
+            while (running) {
+                try {
+                    if (token == null) {
+                        token = login(email);
+                    } else {
+                        act(actions.get(random.nextInt(actions.size())));
+                    }
+                    if (options.thinkMillis() > 0) {
+                        Thread.sleep(random.nextInt(2 * options.thinkMillis() + 1));
+                    }
+                } catch (InterruptedException ex) {
+                    return;
+                } catch (RuntimeException ex) {
+                    //A malformed response must not stop the user, the request was already counted
+                }
+            }
+        }
+
+        private void act(String action) {
+            LoadTestSeeder.Tenant tenant = seed.tenants().get(random.nextInt(seed.tenants().size()));
+
+            switch (action) {
+                case "login" -> token = login(email);
+                case "services" -> expireOn(send("GET /business/services",
+                        get("/business/services?name=" + encode(tenant.businessName()), token)));
+                case "availability" -> {
+                    LocalDate day = bookableDay();
+                    int service = tenant.serviceIds().get(random.nextInt(tenant.serviceIds().size()));
+                    expireOn(send("GET /business/{id}/availability", get("/business/" + tenant.businessId()
+                            + "/availability?serviceId=" + service + "&from=" + day + "&to=" + day, token)));
+                }
+                case "book" -> book(tenant);
+                case "cancel" -> {
+                    Booking booking = bookings.pollFirst();
+                    if (booking == null) {
+                        book(tenant);
+                    } else {
+                        expireOn(send("PUT /appointments/{id}/cancel",
+                                put("/appointments/" + booking.appointmentId() + "/cancel", token)));
+                    }
+                }
+                case "complete" -> {
+                    Booking booking = bookings.pollFirst();
+                    if (booking == null) {
+                        book(tenant);
+                    } else {
+                        send("PUT /appointments/{id}/complete", put("/appointments/" + booking.appointmentId()
+                                + "/complete", staffTokens.get(booking.staffId())));
+                    }
+                }
+                case "myAppointments" -> expireOn(send("GET /appointments/me",
+                        get("/appointments/me?size=20", token)));
+                case "staffAppointments" -> {
+                    int staff = tenant.staffIds().get(random.nextInt(tenant.staffIds().size()));
+                    send("GET /appointments/staff", get("/appointments/staff?size=20", staffTokens.get(staff)));
+                }
+                default -> throw new IllegalStateException(action);
+            }
+        }
+
+        private void book(LoadTestSeeder.Tenant tenant) {
+            int serviceIndex = random.nextInt(tenant.serviceIds().size());
+            int duration = tenant.serviceDurations().get(serviceIndex);
+            int staff = tenant.staffIds().get(random.nextInt(tenant.staffIds().size()));
+
+            int openMinutes = LoadTestSeeder.CLOSES.toSecondOfDay() / 60 - LoadTestSeeder.OPENS.toSecondOfDay() / 60;
+            int slot = random.nextInt((openMinutes - duration) / 30 + 1);
+            LocalDateTime start = bookableDay().atTime(LoadTestSeeder.OPENS).plusMinutes(30L * slot);
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("businessId", tenant.businessId());
+            body.put("staffId", staff);
+            body.put("serviceId", tenant.serviceIds().get(serviceIndex));
+            body.put("startTime", start.toString());
+
+            HttpResponse<String> response = send("POST /appointments", post("/appointments", token, body));
+            if (response == null) {
+                return;
+            }
+
+            if (response.statusCode() == 201) {
+                report.booking(false);
+                bookings.addLast(new Booking(json(response).path("appointmentId").asInt(), staff));
+            } else if (response.statusCode() == 400 && response.body().contains("Horário indisponível")) {
+                report.booking(true);
+            } else {
+                expireOn(response);
+            }
+        }
+
+        //Spreads bookings over the next booking-days open days, fewer days means more conflicts
+        private LocalDate bookableDay() {
+            LocalDate day = LocalDate.now().plusDays(1 + random.nextInt(options.bookingDays()));
+            return day.getDayOfWeek() == DayOfWeek.SUNDAY ? day.plusDays(1) : day;
+        }
+
+        //Access tokens are short lived, a 401 makes the user log in again before its next action
+        private void expireOn(HttpResponse<String> response) {
+            if (response != null && response.statusCode() == 401) {
+                token = null;
+            }
+        }
+    }
+}
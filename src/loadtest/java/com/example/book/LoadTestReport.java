@@ -0,0 +1,128 @@
+package com.example.book;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import tools.jackson.databind.json.JsonMapper;
+
+//Latency per endpoint in microseconds plus the booking outcome counters, only recorded once measuring started
+public class LoadTestReport {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final LongAdder bookings = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private volatile boolean measuring;
+    private volatile long startedAt;
+    private volatile long stoppedAt;
+
+    private static final class Endpoint {
+        final Histogram latency = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+    }
+
+    public void start() {
+        startedAt = System.nanoTime();
+        measuring = true;
+    }
+
+    public void stop() {
+        measuring = false;
+        stoppedAt = System.nanoTime();
+    }
+
+    public void record(String endpoint, long nanos, boolean ok) {
+        if (!measuring) {
+            return;
+        }
+
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, key -> new Endpoint());
+        stats.latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_MICROS));
+        if (!ok) {
+            stats.errors.increment();
+        }
+    }
+
+    public void booking(boolean conflict) {
+        if (measuring) {
+            bookings.increment();
+            if (conflict) {
+                conflicts.increment();
+            }
+        }
+    }
+
+    public void print() {
+        double seconds = elapsedSeconds();
+        long total = 0;
+
+        System.out.printf("%n%-36s %9s %7s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s",
+                "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            Histogram latency = entry.getValue().latency;
+            total += latency.getTotalCount();
+            System.out.printf("%-36s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(),
+                    latency.getTotalCount(), entry.getValue().errors.sum(), latency.getTotalCount() / seconds,
+                    millis(latency, 50), millis(latency, 99), millis(latency, 99.9),
+                    latency.getMaxValue() / 1000.0);
+        }
+
+        System.out.printf("%nthroughput: %.1f req/s over %.0f s%n", total / seconds, seconds);
+        System.out.printf("booking conflict rate: %.2f%% (%d of %d)%n", conflictRate() * 100, conflicts.sum(),
+                bookings.sum());
+    }
+
+    public void write(Path output, LoadTest.Options options) throws IOException {
+        double seconds = elapsedSeconds();
+        Map<String, Object> perEndpoint = new TreeMap<>();
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Histogram latency = entry.getValue().latency;
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", latency.getTotalCount());
+            stats.put("errors", entry.getValue().errors.sum());
+            stats.put("throughput", latency.getTotalCount() / seconds);
+            stats.put("p50Ms", millis(latency, 50));
+            stats.put("p99Ms", millis(latency, 99));
+            stats.put("p999Ms", millis(latency, 99.9));
+            stats.put("maxMs", latency.getMaxValue() / 1000.0);
+            perEndpoint.put(entry.getKey(), stats);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("options", options);
+        result.put("seconds", seconds);
+        result.put("bookings", bookings.sum());
+        result.put("conflicts", conflicts.sum());
+        result.put("conflictRate", conflictRate());
+        result.put("endpoints", perEndpoint);
+
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        JsonMapper.builder().build().writerWithDefaultPrettyPrinter().writeValue(output.toFile(), result);
+        System.out.println("results written to " + output);
+    }
+
+    private double conflictRate() {
+        long attempts = bookings.sum();
+        return attempts == 0 ? 0 : (double) conflicts.sum() / attempts;
+    }
+
+    private double elapsedSeconds() {
+        long end = measuring ? System.nanoTime() : stoppedAt;
+        return Math.max((end - startedAt) / 1e9, 1e-9);
+    }
+
+    private static double millis(Histogram latency, double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
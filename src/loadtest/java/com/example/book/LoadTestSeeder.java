@@ -0,0 +1,171 @@
+package com.example.book;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+//Writes the synthetic tenants straight into the database the running app uses, the tables come from its ddl-auto.
+//Names carry a run id so seeding again never collides. Staff rows reuse their user id, the API compares them
+//when a staff lists or completes appointments, so the load test database should be a disposable one
+public class LoadTestSeeder {
+
+    public static final String PASSWORD = "loadtest123";
+
+    public static final LocalTime OPENS = LocalTime.of(8, 0);
+    public static final LocalTime CLOSES = LocalTime.of(20, 0);
+
+    public record Tenant(Integer businessId, String businessName, List<Integer> staffIds, List<Integer> serviceIds,
+            List<Integer> serviceDurations) {
+    }
+
+    public record Seed(List<Tenant> tenants, List<String> clientEmails, List<String> staffEmails,
+            List<Integer> staffUserIds) {
+    }
+
+    private final LoadTest.Options options;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final String passwordHash;
+
+    public LoadTestSeeder(LoadTest.Options options) {
+        this.options = options;
+        //Same algorithm and cost the app encodes with, otherwise every first login queues a hash upgrade
+        this.passwordHash = "{bcrypt}" + new BCryptPasswordEncoder(options.bcryptStrength()).encode(PASSWORD);
+    }
+
+    public Seed seed() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(options.jdbcUrl(), options.jdbcUser(),
+                options.jdbcPassword())) {
+            connection.setAutoCommit(false);
+
+            List<Tenant> tenants = new ArrayList<>();
+            List<String> staffEmails = new ArrayList<>();
+            List<Integer> staffUserIds = new ArrayList<>();
+
+            for (int b = 0; b < options.businesses(); b++) {
+                String businessName = "lt-" + runId + "-business-" + b;
+                int businessId = insertBusiness(connection, businessName);
+
+                List<Integer> staffIds = new ArrayList<>();
+                for (int s = 0; s < options.staffPerBusiness(); s++) {
+                    String email = "lt-" + runId + "-staff-" + b + "-" + s + "@loadtest.local";
+                    int userId = insertUser(connection, "Staff " + b + "-" + s, email, "STAFF");
+                    insertStaff(connection, userId, "Profissional " + s, businessId);
+                    staffIds.add(userId);
+                    staffEmails.add(email);
+                    staffUserIds.add(userId);
+                }
+
+                List<Integer> serviceIds = new ArrayList<>();
+                List<Integer> serviceDurations = new ArrayList<>();
+                for (int s = 0; s < options.servicesPerBusiness(); s++) {
+                    int duration = s % 2 == 0 ? 30 : 60;
+                    serviceIds.add(insertService(connection, "Serviço " + s, duration, businessId));
+                    serviceDurations.add(duration);
+                }
+
+                insertWorkingHours(connection, businessId);
+                tenants.add(new Tenant(businessId, businessName, staffIds, serviceIds, serviceDurations));
+            }
+
+            List<String> clientEmails = insertClients(connection);
+
+            connection.commit();
+            return new Seed(tenants, clientEmails, staffEmails, staffUserIds);
+        }
+    }
+
+    private int insertBusiness(Connection connection, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO business (name, type, active) VALUES (?, 'BARBER', true)", new String[] { "id" })) {
+            statement.setString(1, name);
+            return executeForId(statement);
+        }
+    }
+
+    private int insertUser(Connection connection, String name, String email, String role) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO users (name, email, password, role, active, token_version) VALUES (?, ?, ?, ?, true, 0)",
+                new String[] { "id" })) {
+            statement.setString(1, name);
+            statement.setString(2, email);
+            statement.setString(3, passwordHash);
+            statement.setString(4, role);
+            return executeForId(statement);
+        }
+    }
+
+    private void insertStaff(Connection connection, int userId, String publicName, int businessId)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO staff (id, public_name, active, user_id, business_id) VALUES (?, ?, true, ?, ?)")) {
+            statement.setInt(1, userId);
+            statement.setString(2, publicName);
+            statement.setInt(3, userId);
+            statement.setInt(4, businessId);
+            statement.executeUpdate();
+        }
+    }
+
+    private int insertService(Connection connection, String name, int duration, int businessId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO service_catalog (name, duration, price, business_id, activate) VALUES (?, ?, ?, ?, true)",
+                new String[] { "id" })) {
+            statement.setString(1, name);
+            statement.setInt(2, duration);
+            statement.setBigDecimal(3, BigDecimal.valueOf(duration));
+            statement.setInt(4, businessId);
+            return executeForId(statement);
+        }
+    }
+
+    private void insertWorkingHours(Connection connection, int businessId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO working_hours (day_of_week, start_time, end_time, business_id) VALUES (?, ?, ?, ?)")) {
+            for (DayOfWeek day : DayOfWeek.values()) {
+                if (day != DayOfWeek.SUNDAY) {
+                    statement.setString(1, day.name());
+                    statement.setObject(2, OPENS);
+                    statement.setObject(3, CLOSES);
+                    statement.setInt(4, businessId);
+                    statement.addBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private List<String> insertClients(Connection connection) throws SQLException {
+        List<String> emails = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO users (name, email, password, role, active, token_version)"
+                        + " VALUES (?, ?, ?, 'CLIENT', true, 0)")) {
+            for (int c = 0; c < options.clients(); c++) {
+                String email = "lt-" + runId + "-client-" + c + "@loadtest.local";
+                statement.setString(1, "Cliente " + c);
+                statement.setString(2, email);
+                statement.setString(3, passwordHash);
+                statement.addBatch();
+                emails.add(email);
+            }
+            statement.executeBatch();
+        }
+        return emails;
+    }
+
+    private static int executeForId(PreparedStatement statement) throws SQLException {
+        statement.executeUpdate();
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            keys.next();
+            return keys.getInt(1);
+        }
+    }
+}
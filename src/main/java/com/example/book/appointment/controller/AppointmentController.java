@@ -4,22 +4,32 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.book.appointment.dto.AppointmentFilterDTO;
 import com.example.book.appointment.dto.AppointmentInputDTO;
+import com.example.book.appointment.dto.AppointmentPageDTO;
 import com.example.book.appointment.dto.AppointmentReturnDTO;
+import com.example.book.appointment.enums.ExportFormat;
+import com.example.book.appointment.service.AppointmentExportService;
 import com.example.book.appointment.service.AppointmentService;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
-import java.util.List;
+import java.io.IOException;
+import java.time.LocalDateTime;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 
 @RequestMapping("/appointments")
 @RestController
@@ -27,6 +37,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final AppointmentExportService appointmentExportService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -56,21 +67,38 @@ public class AppointmentController {
     @GetMapping("/business/{businessId}")
     @ResponseStatus(HttpStatus.OK)
     @PreAuthorize("hasAnyRole('STAFF', 'OWNER')")
-    public List<AppointmentReturnDTO> listByBusiness(@PathVariable Integer businessId) {
-        return appointmentService.listByBusiness(businessId);
+    public AppointmentPageDTO listByBusiness(@PathVariable Integer businessId, @ModelAttribute AppointmentFilterDTO filter) {
+        return appointmentService.listByBusiness(businessId, filter);
+    }
+
+    @GetMapping("/business/{businessId}/export")
+    @PreAuthorize("hasAnyRole('STAFF', 'OWNER')")
+    public void exportByBusiness(@PathVariable Integer businessId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) LocalDateTime from,
+            @RequestParam(required = false) LocalDateTime to,
+            HttpServletResponse response) throws IOException {
+
+        ExportFormat exportFormat = ExportFormat.from(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"appointments-" + businessId + "." + exportFormat.getExtension() + "\"");
+
+        appointmentExportService.exportByBusiness(businessId, from, to, exportFormat, response.getOutputStream());
     }
 
     @GetMapping("/staff")
     @ResponseStatus(HttpStatus.OK)
     @PreAuthorize("hasAnyRole('STAFF', 'OWNER')")
-    public List<AppointmentReturnDTO> listByStaff() {
-        return appointmentService.listByStaff();
+    public AppointmentPageDTO listByStaff(@ModelAttribute AppointmentFilterDTO filter) {
+        return appointmentService.listByStaff(filter);
     }
 
     @GetMapping("/me")
     @ResponseStatus(HttpStatus.OK)
-    public List<AppointmentReturnDTO> listByClient() {
-        return appointmentService.listByClient();
+    public AppointmentPageDTO listByClient(@ModelAttribute AppointmentFilterDTO filter) {
+        return appointmentService.listByClient(filter);
     }
 
 }
@@ -0,0 +1,25 @@
+package com.example.book.appointment.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.example.book.appointment.enums.AppointmentStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class AppointmentExportRowDTO {
+    private Integer appointmentId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private AppointmentStatus status;
+    private Integer staffId;
+    private String staffName;
+    private Integer serviceId;
+    private String serviceName;
+    private BigDecimal price;
+    private Integer clientId;
+    private String clientName;
+}
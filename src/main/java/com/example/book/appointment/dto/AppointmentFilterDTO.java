@@ -0,0 +1,20 @@
+package com.example.book.appointment.dto;
+
+import java.time.LocalDateTime;
+
+import com.example.book.appointment.enums.AppointmentStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class AppointmentFilterDTO {
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private AppointmentStatus status;
+    private String cursor;
+    private Integer size;
+}
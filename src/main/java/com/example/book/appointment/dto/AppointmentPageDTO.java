@@ -0,0 +1,15 @@
+package com.example.book.appointment.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class AppointmentPageDTO {
+    private List<AppointmentReturnDTO> items;
+    private String nextCursor;
+}
@@ -4,11 +4,15 @@ import java.time.LocalDateTime;
 
 import com.example.book.appointment.enums.AppointmentStatus;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Getter
 @Setter
+@NoArgsConstructor
+@AllArgsConstructor
 public class AppointmentReturnDTO {
     private Integer appointmentId;
     private String businessName;
@@ -0,0 +1,15 @@
+package com.example.book.appointment.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BusyIntervalDTO {
+    private Integer appointmentId;
+    private Integer staffId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+}
@@ -0,0 +1,17 @@
+package com.example.book.appointment.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class ScheduleIndexReportDTO {
+    private int databaseAppointments;
+    private int indexedAppointments;
+    private List<Integer> inconsistentStaffIds;
+    private boolean repaired;
+}
@@ -0,0 +1,17 @@
+package com.example.book.appointment.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class StaffAvailabilityDTO {
+    private Integer staffId;
+    private String staffName;
+    private List<LocalDateTime> availableSlots;
+}
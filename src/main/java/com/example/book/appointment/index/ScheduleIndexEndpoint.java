@@ -0,0 +1,31 @@
+package com.example.book.appointment.index;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import com.example.book.appointment.dto.ScheduleIndexReportDTO;
+
+import lombok.RequiredArgsConstructor;
+
+//Operator check of the index against the database, served on the management port only since a repair reloads
+//every tenant. GET /actuator/scheduleindex reports drift, POST also rebuilds the index when it finds any
+@Component
+@Endpoint(id = "scheduleindex")
+@RequiredArgsConstructor
+public class ScheduleIndexEndpoint {
+
+    private final StaffScheduleIndex staffScheduleIndex;
+
+    @ReadOperation
+    public ScheduleIndexReportDTO verify() {
+        return staffScheduleIndex.verify(false);
+    }
+
+    @WriteOperation
+    public ScheduleIndexReportDTO repair() {
+        return staffScheduleIndex.verify(true);
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.example.book.appointment.index;
+
+import java.time.LocalTime;
+
+//One bit per slot of a day (1440 bits at 1 minute slots), busy marks round outward and open marks round inward
+public final class StaffDayBitmap {
+
+    public static final int MINUTES_PER_DAY = 1440;
+
+    private final int slotMinutes;
+    private final int slots;
+    private final long[] words;
+
+    public StaffDayBitmap(int slotMinutes) {
+        if (slotMinutes <= 0 || MINUTES_PER_DAY % slotMinutes != 0) {
+            throw new IllegalArgumentException("Tamanho de slot deve dividir 1440 minutos.");
+        }
+
+        this.slotMinutes = slotMinutes;
+        this.slots = MINUTES_PER_DAY / slotMinutes;
+        this.words = new long[(slots + 63) >>> 6];
+    }
+
+    public static StaffDayBitmap covering(int slotMinutes, int fromMinute, int toMinute) {
+        StaffDayBitmap bitmap = new StaffDayBitmap(slotMinutes);
+        bitmap.markCovering(fromMinute, toMinute);
+        return bitmap;
+    }
+
+    public static StaffDayBitmap within(int slotMinutes, int fromMinute, int toMinute) {
+        StaffDayBitmap bitmap = new StaffDayBitmap(slotMinutes);
+        bitmap.markWithin(fromMinute, toMinute);
+        return bitmap;
+    }
+
+    public static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    public int slots() {
+        return slots;
+    }
+
+    public void markCovering(int fromMinute, int toMinute) {
+        setRange(fromMinute / slotMinutes, Math.ceilDiv(toMinute, slotMinutes));
+    }
+
+    public void markWithin(int fromMinute, int toMinute) {
+        setRange(Math.ceilDiv(fromMinute, slotMinutes), toMinute / slotMinutes);
+    }
+
+    public boolean intersects(StaffDayBitmap other) {
+        checkCompatible(other);
+        for (int i = 0; i < words.length; i++) {
+            if ((words[i] & other.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean containsAll(StaffDayBitmap other) {
+        checkCompatible(other);
+        for (int i = 0; i < words.length; i++) {
+            if ((other.words[i] & ~words[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public StaffDayBitmap andNot(StaffDayBitmap other) {
+        checkCompatible(other);
+        StaffDayBitmap result = new StaffDayBitmap(slotMinutes);
+        for (int i = 0; i < words.length; i++) {
+            result.words[i] = words[i] & ~other.words[i];
+        }
+        return result;
+    }
+
+    public int nextSetBit(int from) {
+        if (from >= slots) {
+            return -1;
+        }
+
+        int index = from >>> 6;
+        long word = words[index] & (-1L << (from & 63));
+        while (word == 0) {
+            if (++index == words.length) {
+                return -1;
+            }
+            word = words[index];
+        }
+
+        int bit = (index << 6) + Long.numberOfTrailingZeros(word);
+        return bit < slots ? bit : -1;
+    }
+
+    public int nextClearBit(int from) {
+        if (from >= slots) {
+            return slots;
+        }
+
+        int index = from >>> 6;
+        long word = ~words[index] & (-1L << (from & 63));
+        while (word == 0) {
+            if (++index == words.length) {
+                return slots;
+            }
+            word = ~words[index];
+        }
+
+        return Math.min((index << 6) + Long.numberOfTrailingZeros(word), slots);
+    }
+
+    private void setRange(int from, int to) {
+        from = Math.max(from, 0);
+        to = Math.min(to, slots);
+        if (from >= to) {
+            return;
+        }
+
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << (from & 63);
+        long lastMask = -1L >>> (63 - ((to - 1) & 63));
+
+        if (firstWord == lastWord) {
+            words[firstWord] |= firstMask & lastMask;
+            return;
+        }
+
+        words[firstWord] |= firstMask;
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            words[i] = -1L;
+        }
+        words[lastWord] |= lastMask;
+    }
+
+    private void checkCompatible(StaffDayBitmap other) {
+        if (other.slotMinutes != slotMinutes) {
+            throw new IllegalArgumentException("Bitmaps com tamanhos de slot diferentes.");
+        }
+    }
+
+}
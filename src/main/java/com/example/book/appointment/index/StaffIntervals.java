@@ -0,0 +1,213 @@
+package com.example.book.appointment.index;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import com.example.book.appointment.dto.BusyIntervalDTO;
+
+//Immutable snapshot of one staff's SCHEDULED appointments as epoch-minute [start, end) pairs sorted by start
+public final class StaffIntervals {
+
+    public static final StaffIntervals EMPTY = new StaffIntervals(new int[0], new long[0], new long[0]);
+
+    private final int[] ids;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+
+    private StaffIntervals(int[] ids, long[] starts, long[] ends) {
+        this.ids = ids;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = new long[ends.length];
+
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < ends.length; i++) {
+            max = Math.max(max, ends[i]);
+            maxEnds[i] = max;
+        }
+    }
+
+    public static StaffIntervals of(List<BusyIntervalDTO> intervals) {
+        if (intervals.isEmpty()) {
+            return EMPTY;
+        }
+
+        BusyIntervalDTO[] sorted = intervals.toArray(BusyIntervalDTO[]::new);
+        Arrays.sort(sorted, Comparator.comparing(BusyIntervalDTO::getStartTime)
+                .thenComparing(BusyIntervalDTO::getAppointmentId));
+
+        int[] ids = new int[sorted.length];
+        long[] starts = new long[sorted.length];
+        long[] ends = new long[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            ids[i] = sorted[i].getAppointmentId();
+            starts[i] = floorMinute(sorted[i].getStartTime());
+            ends[i] = ceilMinute(sorted[i].getEndTime());
+        }
+
+        return new StaffIntervals(ids, starts, ends);
+    }
+
+    public static long floorMinute(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    public static long ceilMinute(LocalDateTime time) {
+        long seconds = time.toEpochSecond(ZoneOffset.UTC);
+        if (time.getNano() > 0) {
+            seconds++;
+        }
+        return Math.floorDiv(seconds + 59, 60);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public StaffDayBitmap rasterize(LocalDate day, int slotMinutes) {
+        StaffDayBitmap bitmap = new StaffDayBitmap(slotMinutes);
+        long dayStart = floorMinute(day.atStartOfDay());
+        long dayEnd = dayStart + StaffDayBitmap.MINUTES_PER_DAY;
+
+        for (int i = firstMaxEndAfter(dayStart); i < starts.length && starts[i] < dayEnd; i++) {
+            if (ends[i] > dayStart) {
+                bitmap.markCovering((int) Math.max(starts[i] - dayStart, 0),
+                        (int) Math.min(ends[i] - dayStart, StaffDayBitmap.MINUTES_PER_DAY));
+            }
+        }
+
+        return bitmap;
+    }
+
+    public StaffIntervals with(int id, LocalDateTime start, LocalDateTime end) {
+        StaffIntervals current = without(id);
+        long startMinute = floorMinute(start);
+        int position = current.firstStartAtOrAfter(startMinute);
+        while (position < current.size() && current.starts[position] == startMinute
+                && current.ids[position] < id) {
+            position++;
+        }
+
+        int size = current.size();
+        int[] newIds = new int[size + 1];
+        long[] newStarts = new long[size + 1];
+        long[] newEnds = new long[size + 1];
+
+        System.arraycopy(current.ids, 0, newIds, 0, position);
+        System.arraycopy(current.starts, 0, newStarts, 0, position);
+        System.arraycopy(current.ends, 0, newEnds, 0, position);
+
+        newIds[position] = id;
+        newStarts[position] = startMinute;
+        newEnds[position] = ceilMinute(end);
+
+        System.arraycopy(current.ids, position, newIds, position + 1, size - position);
+        System.arraycopy(current.starts, position, newStarts, position + 1, size - position);
+        System.arraycopy(current.ends, position, newEnds, position + 1, size - position);
+
+        return new StaffIntervals(newIds, newStarts, newEnds);
+    }
+
+    public StaffIntervals without(int id) {
+        int position = indexOf(id);
+        if (position < 0) {
+            return this;
+        }
+
+        int size = size();
+        if (size == 1) {
+            return EMPTY;
+        }
+
+        int[] newIds = new int[size - 1];
+        long[] newStarts = new long[size - 1];
+        long[] newEnds = new long[size - 1];
+
+        System.arraycopy(ids, 0, newIds, 0, position);
+        System.arraycopy(starts, 0, newStarts, 0, position);
+        System.arraycopy(ends, 0, newEnds, 0, position);
+
+        System.arraycopy(ids, position + 1, newIds, position, size - position - 1);
+        System.arraycopy(starts, position + 1, newStarts, position, size - position - 1);
+        System.arraycopy(ends, position + 1, newEnds, position, size - position - 1);
+
+        return new StaffIntervals(newIds, newStarts, newEnds);
+    }
+
+    public StaffIntervals endingAfter(long minute) {
+        int kept = 0;
+        for (long end : ends) {
+            if (end > minute) {
+                kept++;
+            }
+        }
+
+        if (kept == size()) {
+            return this;
+        }
+
+        int[] newIds = new int[kept];
+        long[] newStarts = new long[kept];
+        long[] newEnds = new long[kept];
+        int next = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (ends[i] > minute) {
+                newIds[next] = ids[i];
+                newStarts[next] = starts[i];
+                newEnds[next] = ends[i];
+                next++;
+            }
+        }
+
+        return new StaffIntervals(newIds, newStarts, newEnds);
+    }
+
+    public boolean sameAs(StaffIntervals other) {
+        return Arrays.equals(ids, other.ids)
+                && Arrays.equals(starts, other.starts)
+                && Arrays.equals(ends, other.ends);
+    }
+
+    private int indexOf(int id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int firstMaxEndAfter(long minute) {
+        int low = 0;
+        int high = maxEnds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (maxEnds[mid] <= minute) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int firstStartAtOrAfter(long minute) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < minute) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.example.book.appointment.index;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.book.appointment.dto.BusyIntervalDTO;
+import com.example.book.appointment.dto.ScheduleIndexReportDTO;
+import com.example.book.appointment.enums.AppointmentStatus;
+import com.example.book.appointment.repository.AppointmentRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+//Per-staff copy-on-write index of SCHEDULED appointments, the exclusion constraint stays the source of truth.
+//Changes made on other instances only arrive through reconcile, so entries are stale for at most one interval
+@Component
+public class StaffScheduleIndex implements SmartInitializingSingleton {
+
+    private final AppointmentRepository appointmentRepository;
+    private final boolean enabled;
+    private final int slotMinutes;
+    private final Map<Integer, StaffIntervals> schedules = new ConcurrentHashMap<>();
+    private final Cache<StaffDay, DayBitmapEntry> dayBitmaps;
+    private volatile boolean ready;
+
+    private record StaffDay(Integer staffId, LocalDate day) {
+    }
+
+    // source is the snapshot the bitmap was rasterized from, a replaced snapshot makes the entry stale
+    private record DayBitmapEntry(StaffIntervals source, StaffDayBitmap bitmap) {
+    }
+
+    public StaffScheduleIndex(AppointmentRepository appointmentRepository,
+            @Value("${appointment.schedule-index.enabled:true}") boolean enabled,
+            @Value("${appointment.schedule-index.slot-minutes:1}") int slotMinutes,
+            @Value("${appointment.schedule-index.bitmap-cache-size:100000}") long bitmapCacheSize) {
+        this.appointmentRepository = appointmentRepository;
+        this.enabled = enabled;
+        this.slotMinutes = new StaffDayBitmap(slotMinutes).getSlotMinutes();
+        this.dayBitmaps = Caffeine.newBuilder().maximumSize(bitmapCacheSize).build();
+    }
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public Optional<StaffDayBitmap> bookedSlots(Integer staffId, LocalDate day) {
+        if (!ready) {
+            return Optional.empty();
+        }
+
+        StaffIntervals current = schedules.getOrDefault(staffId, StaffIntervals.EMPTY);
+        StaffDay key = new StaffDay(staffId, day);
+        DayBitmapEntry cached = dayBitmaps.getIfPresent(key);
+
+        if (cached == null || cached.source() != current) {
+            cached = new DayBitmapEntry(current, current.rasterize(day, slotMinutes));
+            dayBitmaps.put(key, cached);
+        }
+
+        return Optional.of(cached.bitmap());
+    }
+
+    public void add(Integer staffId, Integer appointmentId, LocalDateTime start, LocalDateTime end) {
+        if (enabled) {
+            schedules.compute(staffId, (id, current) -> (current == null ? StaffIntervals.EMPTY : current)
+                    .with(appointmentId, start, end));
+        }
+    }
+
+    public void remove(Integer staffId, Integer appointmentId) {
+        if (enabled) {
+            schedules.computeIfPresent(staffId, (id, current) -> current.without(appointmentId));
+        }
+    }
+
+    public void rebuild() {
+        Map<Integer, StaffIntervals> loaded = load(LocalDateTime.now());
+
+        schedules.putAll(loaded);
+        schedules.keySet().retainAll(loaded.keySet());
+        dayBitmaps.invalidateAll();
+        ready = true;
+    }
+
+    //Replaces the snapshot of every staff that differs from the database. A booking made here while the load runs
+    //can be dropped until the next pass, the exclusion constraint still rejects a double booking meanwhile
+    @Scheduled(fixedDelayString = "${appointment.schedule-index.reconcile-ms:30000}",
+            initialDelayString = "${appointment.schedule-index.reconcile-ms:30000}")
+    public void reconcile() {
+        if (!enabled || !ready) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now();
+        long cutoffMinute = StaffIntervals.floorMinute(cutoff);
+        Map<Integer, StaffIntervals> database = load(cutoff);
+
+        Set<Integer> staffIds = new HashSet<>(database.keySet());
+        staffIds.addAll(schedules.keySet());
+
+        for (Integer staffId : staffIds) {
+            StaffIntervals expected = database.get(staffId);
+            StaffIntervals actual = schedules.getOrDefault(staffId, StaffIntervals.EMPTY).endingAfter(cutoffMinute);
+
+            if (expected == null) {
+                if (actual.size() > 0) {
+                    schedules.remove(staffId);
+                }
+            } else if (!expected.sameAs(actual)) {
+                schedules.put(staffId, expected);
+            }
+        }
+    }
+
+    public ScheduleIndexReportDTO verify(boolean repair) {
+        LocalDateTime cutoff = LocalDateTime.now();
+        long cutoffMinute = StaffIntervals.floorMinute(cutoff);
+        Map<Integer, StaffIntervals> database = load(cutoff);
+
+        Set<Integer> staffIds = new HashSet<>(database.keySet());
+        staffIds.addAll(schedules.keySet());
+
+        int databaseAppointments = 0;
+        int indexedAppointments = 0;
+        List<Integer> inconsistent = new ArrayList<>();
+
+        for (Integer staffId : staffIds) {
+            StaffIntervals expected = database.getOrDefault(staffId, StaffIntervals.EMPTY);
+            StaffIntervals actual = schedules.getOrDefault(staffId, StaffIntervals.EMPTY).endingAfter(cutoffMinute);
+
+            databaseAppointments += expected.size();
+            indexedAppointments += actual.size();
+
+            if (!expected.sameAs(actual)) {
+                inconsistent.add(staffId);
+            }
+        }
+
+        inconsistent.sort(null);
+
+        boolean repaired = repair && enabled && (!inconsistent.isEmpty() || !ready);
+        if (repaired) {
+            rebuild();
+        }
+
+        return new ScheduleIndexReportDTO(databaseAppointments, indexedAppointments, inconsistent, repaired);
+    }
+
+    private Map<Integer, StaffIntervals> load(LocalDateTime from) {
+        return appointmentRepository.findBusyIntervalsEndingAfter(AppointmentStatus.SCHEDULED, from)
+                .stream()
+                .collect(Collectors.groupingBy(BusyIntervalDTO::getStaffId,
+                        Collectors.collectingAndThen(Collectors.toList(), StaffIntervals::of)));
+    }
+
+}
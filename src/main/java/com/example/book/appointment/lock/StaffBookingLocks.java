@@ -0,0 +1,85 @@
+package com.example.book.appointment.lock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.book.common.exceptions.BusinessException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+//Serializes bookings of the same staff, bookings of different staff only share a lock on a stripe collision
+@Component
+public class StaffBookingLocks {
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+    private final Timer waitTimer;
+    private final Counter timeoutCounter;
+
+    public StaffBookingLocks(
+            @Value("${appointment.booking-lock.stripes:64}") int stripeCount,
+            @Value("${appointment.booking-lock.timeout-ms:2000}") long timeoutMillis,
+            MeterRegistry meterRegistry) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("appointment.booking-lock.stripes deve ser maior que zero.");
+        }
+
+        this.stripes = new ReentrantLock[stripeCount];
+        this.timeoutMillis = timeoutMillis;
+
+        for (int i = 0; i < stripeCount; i++) {
+            ReentrantLock lock = new ReentrantLock();
+            stripes[i] = lock;
+            Gauge.builder("appointment.booking.lock.queue", lock, ReentrantLock::getQueueLength)
+                    .description("Threads waiting on the booking lock stripe")
+                    .tag("stripe", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+
+        this.waitTimer = Timer.builder("appointment.booking.lock.wait")
+                .description("Time spent waiting for a staff booking lock")
+                .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("appointment.booking.lock.timeouts")
+                .description("Bookings rejected because the staff booking lock was not acquired in time")
+                .register(meterRegistry);
+    }
+
+    public <T> T withLock(Integer staffId, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripeIndex(staffId)];
+
+        long waitStart = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        waitTimer.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+            timeoutCounter.increment();
+            throw new BusinessException("Agenda do profissional ocupada, tente novamente.");
+        }
+
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int stripeIndex(Integer staffId) {
+        int hash = staffId.hashCode();
+        hash ^= (hash >>> 16);
+        return Math.floorMod(hash, stripes.length);
+    }
+
+}
@@ -2,11 +2,11 @@ package com.example.book.appointment.policy;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.time.LocalTime;
 
-import com.example.book.appointment.model.Appointment;
+import com.example.book.appointment.index.StaffDayBitmap;
 import com.example.book.business.model.Business;
-import com.example.book.business.model.WorkingHours;
+import com.example.book.business.schedule.CompiledSchedule;
 import com.example.book.servicecatalog.model.ServiceCatalog;
 import com.example.book.staff.model.Staff;
 
@@ -23,21 +23,39 @@ public class AppointmentContext {
     private ServiceCatalog service;
     private LocalDateTime start;
     private LocalDateTime end;
-    private WorkingHours workingHours;
-    private List<Appointment> staffAppointments;
+    private CompiledSchedule schedule;
+    private StaffDayBitmap bookedSlots;
+
+    private int fromMinute() {
+        return StaffDayBitmap.minuteOfDay(start.toLocalTime());
+    }
+
+    private int toMinute() {
+        int to = fromMinute()
+                + (int) Math.ceilDiv(Duration.between(start.withSecond(0).withNano(0), end).toSeconds(), 60);
+        return Math.min(to, StaffDayBitmap.MINUTES_PER_DAY);
+    }
+
+    private StaffDayBitmap requestedSlots() {
+        return StaffDayBitmap.covering(bookedSlots.getSlotMinutes(), fromMinute(), toMinute());
+    }
+
+    private boolean endsSameDay() {
+        return end.toLocalDate().equals(start.toLocalDate())
+                || (end.toLocalDate().equals(start.toLocalDate().plusDays(1))
+                        && end.toLocalTime().equals(LocalTime.MIDNIGHT));
+    }
 
     public boolean hasConflict() {
-        return staffAppointments.stream()
-                .anyMatch(a -> start.isBefore(a.getEndTime()) && end.isAfter(a.getStartTime()));
+        return bookedSlots.intersects(requestedSlots());
     }
 
     public boolean isWithinWorkinHours() {
-        return !start.toLocalTime().isBefore(workingHours.getStartTime())
-                && !end.toLocalTime().isAfter(workingHours.getEndTime());
+        return endsSameDay() && schedule.isOpen(start.toLocalDate(), fromMinute(), toMinute());
     }
 
     public boolean isInThePast() {
-        return start.isAfter(LocalDateTime.now());
+        return start.isBefore(LocalDateTime.now());
     }
 
     public boolean isDurationValid() {
@@ -1,12 +1,26 @@
 package com.example.book.appointment.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.example.book.appointment.dto.AppointmentExportRowDTO;
+import com.example.book.appointment.dto.AppointmentReturnDTO;
+import com.example.book.appointment.dto.BusyIntervalDTO;
+import com.example.book.appointment.enums.AppointmentStatus;
 import com.example.book.appointment.model.Appointment;
 
+import jakarta.persistence.QueryHint;
+
 public interface AppointmentRepository extends JpaRepository<Appointment, Integer> {
         boolean existsByStaffIdAndStartTimeLessThanAndEndTimeGreaterThan(
                         Integer staffId,
@@ -15,12 +29,156 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Intege
 
         public boolean existsByServiceId(Integer serviceId);
 
-        List<Appointment> findByBusinessId(Integer businessId);
+        boolean existsByStaffIdAndStatusAndStartTimeAfter(
+                        Integer staffId,
+                        AppointmentStatus status,
+                        LocalDateTime startTime);
+
+        @Query("""
+                        select new com.example.book.appointment.dto.AppointmentReturnDTO(
+                                a.id, b.name, b.id, sv.id, sv.name, st.id, st.publicName, a.client.id,
+                                a.startTime, a.endTime, a.status)
+                        from Appointment a
+                        join a.business b
+                        join a.service sv
+                        join a.staff st
+                        where a.id = :id
+                        """)
+        Optional<AppointmentReturnDTO> findReturnById(@Param("id") Integer id);
+
+        @Query("""
+                        select new com.example.book.appointment.dto.AppointmentReturnDTO(
+                                a.id, b.name, b.id, sv.id, sv.name, st.id, st.publicName, a.client.id,
+                                a.startTime, a.endTime, a.status)
+                        from Appointment a
+                        join a.business b
+                        join a.service sv
+                        join a.staff st
+                        where b.id = :businessId
+                          and a.status in :statuses
+                          and a.startTime >= :from
+                          and a.startTime < :to
+                          and (a.startTime > :afterStart or (a.startTime = :afterStart and a.id > :afterId))
+                        order by a.startTime, a.id
+                        """)
+        List<AppointmentReturnDTO> findPageByBusiness(
+                        @Param("businessId") Integer businessId,
+                        @Param("statuses") Collection<AppointmentStatus> statuses,
+                        @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to,
+                        @Param("afterStart") LocalDateTime afterStart,
+                        @Param("afterId") Integer afterId,
+                        Limit limit);
+
+        @Query("""
+                        select new com.example.book.appointment.dto.AppointmentReturnDTO(
+                                a.id, b.name, b.id, sv.id, sv.name, st.id, st.publicName, a.client.id,
+                                a.startTime, a.endTime, a.status)
+                        from Appointment a
+                        join a.business b
+                        join a.service sv
+                        join a.staff st
+                        where st.id = :staffId
+                          and a.status in :statuses
+                          and a.startTime >= :from
+                          and a.startTime < :to
+                          and (a.startTime > :afterStart or (a.startTime = :afterStart and a.id > :afterId))
+                        order by a.startTime, a.id
+                        """)
+        List<AppointmentReturnDTO> findPageByStaff(
+                        @Param("staffId") Integer staffId,
+                        @Param("statuses") Collection<AppointmentStatus> statuses,
+                        @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to,
+                        @Param("afterStart") LocalDateTime afterStart,
+                        @Param("afterId") Integer afterId,
+                        Limit limit);
+
+        @Query("""
+                        select new com.example.book.appointment.dto.AppointmentReturnDTO(
+                                a.id, b.name, b.id, sv.id, sv.name, st.id, st.publicName, a.client.id,
+                                a.startTime, a.endTime, a.status)
+                        from Appointment a
+                        join a.business b
+                        join a.service sv
+                        join a.staff st
+                        where a.client.id = :clientId
+                          and a.status in :statuses
+                          and a.startTime >= :from
+                          and a.startTime < :to
+                          and (a.startTime > :afterStart or (a.startTime = :afterStart and a.id > :afterId))
+                        order by a.startTime, a.id
+                        """)
+        List<AppointmentReturnDTO> findPageByClient(
+                        @Param("clientId") Integer clientId,
+                        @Param("statuses") Collection<AppointmentStatus> statuses,
+                        @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to,
+                        @Param("afterStart") LocalDateTime afterStart,
+                        @Param("afterId") Integer afterId,
+                        Limit limit);
+
+        @Query("""
+                        select new com.example.book.appointment.dto.BusyIntervalDTO(
+                                a.id, a.staff.id, a.startTime, a.endTime)
+                        from Appointment a
+                        where a.business.id = :businessId
+                          and a.status = :status
+                          and a.startTime < :to
+                          and a.endTime > :from
+                        order by a.staff.id, a.startTime
+                        """)
+        List<BusyIntervalDTO> findBusyIntervalsByBusiness(
+                        @Param("businessId") Integer businessId,
+                        @Param("status") AppointmentStatus status,
+                        @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to);
 
-        List<Appointment> findByStaffId(Integer staffId);
+        @Query("""
+                        select new com.example.book.appointment.dto.BusyIntervalDTO(
+                                a.id, a.staff.id, a.startTime, a.endTime)
+                        from Appointment a
+                        where a.staff.id = :staffId
+                          and a.status = :status
+                          and a.startTime < :to
+                          and a.endTime > :from
+                        order by a.startTime
+                        """)
+        List<BusyIntervalDTO> findBusyIntervalsByStaff(
+                        @Param("staffId") Integer staffId,
+                        @Param("status") AppointmentStatus status,
+                        @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to);
 
-        List<Appointment> findByStaffIdAndStaffActiveTrue(Integer staffId);
+        @Query("""
+                        select new com.example.book.appointment.dto.BusyIntervalDTO(
+                                a.id, a.staff.id, a.startTime, a.endTime)
+                        from Appointment a
+                        where a.status = :status
+                          and a.endTime > :from
+                        order by a.staff.id, a.startTime
+                        """)
+        List<BusyIntervalDTO> findBusyIntervalsEndingAfter(
+                        @Param("status") AppointmentStatus status,
+                        @Param("from") LocalDateTime from);
 
-        List<Appointment> findByClientId(Integer clientId);
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+        @Query("""
+                        select new com.example.book.appointment.dto.AppointmentExportRowDTO(
+                                a.id, a.startTime, a.endTime, a.status,
+                                st.id, st.publicName, sv.id, sv.name, sv.price, c.id, c.name)
+                        from Appointment a
+                        join a.staff st
+                        join a.service sv
+                        left join a.client c
+                        where a.business.id = :businessId
+                          and a.startTime >= :from
+                          and a.startTime < :to
+                        order by a.startTime, a.id
+                        """)
+        Stream<AppointmentExportRowDTO> streamExportRows(
+                        @Param("businessId") Integer businessId,
+                        @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to);
 
 }
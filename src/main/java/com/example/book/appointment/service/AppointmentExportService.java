@@ -0,0 +1,107 @@
+package com.example.book.appointment.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.book.appointment.dto.AppointmentExportRowDTO;
+import com.example.book.appointment.enums.ExportFormat;
+import com.example.book.appointment.repository.AppointmentRepository;
+import com.example.book.common.exceptions.BusinessException;
+
+import lombok.RequiredArgsConstructor;
+import tools.jackson.databind.json.JsonMapper;
+
+@Service
+@RequiredArgsConstructor
+public class AppointmentExportService {
+
+    private static final String CSV_HEADER = "appointmentId,startTime,endTime,status,staffId,staffName,"
+            + "serviceId,serviceName,price,clientId,clientName";
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentService appointmentService;
+    private final JsonMapper jsonMapper;
+
+    //Rows come from a forward-only cursor and go straight to the socket, a slow client blocks the writer instead of filling memory
+    @Transactional(readOnly = true)
+    public void exportByBusiness(Integer businessId, LocalDateTime from, LocalDateTime to, ExportFormat format,
+            OutputStream output) throws IOException {
+
+        appointmentService.checkBusinessAccess(businessId);
+
+        LocalDateTime start = from != null ? from : LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        LocalDateTime end = to != null ? to : start.plusMonths(1);
+
+        if (!end.isAfter(start)) {
+            throw new BusinessException("Intervalo de datas inválido.");
+        }
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 16 * 1024);
+
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<AppointmentExportRowDTO> rows = appointmentRepository.streamExportRows(businessId, start, end)) {
+            rows.forEach(row -> writeRow(writer, row, format));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+
+        writer.flush();
+    }
+
+    private void writeRow(Writer writer, AppointmentExportRowDTO row, ExportFormat format) {
+        try {
+            if (format == ExportFormat.CSV) {
+                writer.write(toCsv(row));
+            } else {
+                writer.write(jsonMapper.writeValueAsString(row));
+            }
+            writer.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private String toCsv(AppointmentExportRowDTO row) {
+        return String.join(",",
+                csvField(row.getAppointmentId()),
+                csvField(row.getStartTime()),
+                csvField(row.getEndTime()),
+                csvField(row.getStatus()),
+                csvField(row.getStaffId()),
+                csvField(row.getStaffName()),
+                csvField(row.getServiceId()),
+                csvField(row.getServiceName()),
+                csvField(row.getPrice()),
+                csvField(row.getClientId()),
+                csvField(row.getClientName()));
+    }
+
+    private String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+}
@@ -1,22 +1,39 @@
 package com.example.book.appointment.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.book.appointment.dto.AppointmentFilterDTO;
 import com.example.book.appointment.dto.AppointmentInputDTO;
+import com.example.book.appointment.dto.AppointmentPageDTO;
 import com.example.book.appointment.dto.AppointmentReturnDTO;
 import com.example.book.appointment.enums.AppointmentStatus;
+import com.example.book.appointment.index.StaffDayBitmap;
+import com.example.book.appointment.index.StaffIntervals;
+import com.example.book.appointment.index.StaffScheduleIndex;
+import com.example.book.appointment.lock.StaffBookingLocks;
 import com.example.book.appointment.model.Appointment;
 import com.example.book.appointment.policy.AppointmentContext;
 import com.example.book.appointment.policy.AppointmentValidator;
 import com.example.book.appointment.repository.AppointmentRepository;
 import com.example.book.business.model.Business;
-import com.example.book.business.model.WorkingHours;
 import com.example.book.business.repository.BusinessRepository;
-import com.example.book.business.repository.WorkingHoursRepository;
+import com.example.book.business.schedule.CompiledSchedule;
+import com.example.book.business.schedule.WorkingHoursCache;
 import com.example.book.common.exceptions.BusinessException;
+import com.example.book.common.security.AuthenticatedUser;
 import com.example.book.common.security.LoggedUserService;
 import com.example.book.servicecatalog.model.ServiceCatalog;
 import com.example.book.servicecatalog.repository.ServiceCatalogRepository;
@@ -30,20 +47,30 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class AppointmentService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final AppointmentRepository appointmentRepository;
     private final AppointmentValidator appointmentValidator;
     private final BusinessRepository businessRepository;
     private final StaffRepository staffRepository;
     private final ServiceCatalogRepository serviceCatalogRepository;
-    private final WorkingHoursRepository workingHoursRepository;
+    private final WorkingHoursCache workingHoursCache;
     private final LoggedUserService loggedUserService;
+    private final StaffBookingLocks staffBookingLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final StaffScheduleIndex staffScheduleIndex;
 
     private AppointmentReturnDTO toDto(Appointment appointment) {
         AppointmentReturnDTO dto = new AppointmentReturnDTO();
 
         dto.setAppointmentId(appointment.getId());
+        dto.setBusinessName(appointment.getBusiness().getName());
         dto.setBusinessId(appointment.getBusiness().getId());
         dto.setServiceId(appointment.getService().getId());
+        dto.setServiceName(appointment.getService().getName());
+        dto.setStaffId(appointment.getStaff().getId());
+        dto.setStaffName(appointment.getStaff().getPublicName());
         dto.setClientId(appointment.getClient().getId());
         dto.setStartTime(appointment.getStartTime());
         dto.setEndTime(appointment.getEndTime());
@@ -52,39 +79,79 @@ public class AppointmentService {
         return dto;
     }
 
+    private boolean isOverlapViolation(DataIntegrityViolationException ex) {
+        String message = ex.getMostSpecificCause().getMessage();
+        return message != null && message.contains(Appointment.NO_OVERLAP_CONSTRAINT);
+    }
+
     public AppointmentReturnDTO createAppointment(AppointmentInputDTO input) {
+        if (input.getStaffId() == null) {
+            throw new BusinessException("Staff inválido.");
+        }
+        return staffBookingLocks.withLock(input.getStaffId(), () -> {
+            AppointmentReturnDTO created = transactionTemplate.execute(status -> book(input));
+            staffScheduleIndex.add(input.getStaffId(), created.getAppointmentId(), created.getStartTime(),
+                    created.getEndTime());
+            return created;
+        });
+    }
+
+    private AppointmentReturnDTO book(AppointmentInputDTO input) {
         Business business = businessRepository.findById(input.getBusinessId())
                 .orElseThrow(() -> new BusinessException("ID inválido."));
         Staff staff = staffRepository.findById(input.getStaffId())
                 .orElseThrow(() -> new BusinessException("ID inválido."));
         ServiceCatalog serviceCatalog = serviceCatalogRepository.findById(input.getServiceId())
                 .orElseThrow(() -> new BusinessException("ID inválido."));
-        User client = loggedUserService.get();
+        User client = loggedUserService.reference();
 
         LocalDateTime start = input.getStartTime();
         LocalDateTime end = start.plusMinutes(serviceCatalog.getDuration());
 
-        WorkingHours workingHours = workingHoursRepository.findByBusinessIdAndDayOfWeek(business.getId(),
-                start.getDayOfWeek()).orElseThrow(() -> new BusinessException("ID inválido."));
+        CompiledSchedule schedule = workingHoursCache.schedule(business.getId());
+        if (!schedule.hasHours(start.getDayOfWeek())) {
+            throw new BusinessException("ID inválido.");
+        }
 
-        List<Appointment> staffAppointments = appointmentRepository.findByStaffIdAndStaffActiveTrue(staff.getId());
+        Optional<StaffDayBitmap> indexedSlots = staffScheduleIndex.bookedSlots(staff.getId(), start.toLocalDate());
+        StaffDayBitmap bookedSlots = indexedSlots.orElseGet(() -> databaseSlots(staff.getId(), start, end));
 
         AppointmentContext context = new AppointmentContext(
-                business, staff, serviceCatalog, start, end, workingHours, staffAppointments);
+                business, staff, serviceCatalog, start, end, schedule, bookedSlots);
+
+        //The index hears of cancellations made on other instances only at its next reconcile, so a conflict it
+        //reports is confirmed against the database before the slot is refused
+        if (indexedSlots.isPresent() && context.hasConflict()) {
+            context.setBookedSlots(databaseSlots(staff.getId(), start, end));
+        }
 
         appointmentValidator.validateCreation(context);
 
         Appointment appointment = new Appointment(business, serviceCatalog, staff, client,
                 start, end);
-        appointmentRepository.save(appointment);
+
+        try {
+            appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException ex) {
+            if (isOverlapViolation(ex)) {
+                throw new BusinessException("Horário indisponível.");
+            }
+            throw ex;
+        }
+
         return toDto(appointment);
     }
 
+    private StaffDayBitmap databaseSlots(Integer staffId, LocalDateTime start, LocalDateTime end) {
+        return StaffIntervals.of(appointmentRepository.findBusyIntervalsByStaff(staffId, AppointmentStatus.SCHEDULED,
+                start, end)).rasterize(start.toLocalDate(), staffScheduleIndex.getSlotMinutes());
+    }
+
     public void cancelAppointment(Integer appointmentId) {
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new BusinessException("ID inválido."));
 
-        User userLogged = loggedUserService.get();
+        AuthenticatedUser userLogged = loggedUserService.current();
 
         if (!appointment.getClient().getId().equals(userLogged.getId())
                 && !userLogged.getRole().equals(UserRoleEnum.STAFF)) {
@@ -102,13 +169,14 @@ public class AppointmentService {
 
         appointment.setStatus(AppointmentStatus.CANCELED);
         appointmentRepository.save(appointment);
+        staffScheduleIndex.remove(appointment.getStaff().getId(), appointment.getId());
     }
 
     public void completeAppointment(Integer appointmentId) {
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new BusinessException("ID inválido."));
 
-        User logged = loggedUserService.get();
+        AuthenticatedUser logged = loggedUserService.current();
 
         if (!logged.getRole().equals(UserRoleEnum.STAFF)) {
             throw new BusinessException("Não autorizado.");
@@ -124,23 +192,24 @@ public class AppointmentService {
 
         appointment.setStatus(AppointmentStatus.COMPLETED);
         appointmentRepository.save(appointment);
+        staffScheduleIndex.remove(appointment.getStaff().getId(), appointment.getId());
     }
 
     public AppointmentReturnDTO getAppointmentById(Integer appointmentId) {
-        Appointment appointment = appointmentRepository.findById(appointmentId)
+        AppointmentReturnDTO appointment = appointmentRepository.findReturnById(appointmentId)
                 .orElseThrow(() -> new BusinessException("ID inválido."));
 
-        User user = loggedUserService.get();
+        AuthenticatedUser user = loggedUserService.current();
 
-        if (user.getRole().equals(UserRoleEnum.CLIENT) && !appointment.getClient().getId().equals(user.getId())) {
+        if (user.getRole().equals(UserRoleEnum.CLIENT) && !appointment.getClientId().equals(user.getId())) {
             throw new BusinessException("Acesso negado.");
         }
 
-        return toDto(appointment);
+        return appointment;
     }
 
-    public List<AppointmentReturnDTO> listByBusiness(Integer businessId) {
-        User logged = loggedUserService.get();
+    public void checkBusinessAccess(Integer businessId) {
+        AuthenticatedUser logged = loggedUserService.current();
 
         if (logged.getRole().equals(UserRoleEnum.STAFF)) {
             Staff staff = staffRepository.findById(logged.getId())
@@ -150,30 +219,102 @@ public class AppointmentService {
                 throw new BusinessException("Acesso negado.");
             }
         }
+    }
 
-        List<Appointment> appointments = appointmentRepository.findByBusinessId(businessId);
+    public AppointmentPageDTO listByBusiness(Integer businessId, AppointmentFilterDTO filter) {
+        checkBusinessAccess(businessId);
 
-        return appointments.stream().map(a -> toDto(a)).toList();
+        PageWindow window = PageWindow.of(filter);
+        List<AppointmentReturnDTO> appointments = appointmentRepository.findPageByBusiness(businessId, window.statuses(),
+                window.from(), window.to(), window.afterStart(), window.afterId(), window.limit());
+
+        return toPage(appointments, window.size());
     }
 
-    public List<AppointmentReturnDTO> listByStaff() {
+    public AppointmentPageDTO listByStaff(AppointmentFilterDTO filter) {
 
-        User logged = loggedUserService.get();
+        AuthenticatedUser logged = loggedUserService.current();
 
         Staff staff = staffRepository.findById(logged.getId())
                 .orElseThrow(() -> new BusinessException("Staff inválido."));
 
-        List<Appointment> appointments = appointmentRepository.findByStaffId(staff.getId());
+        PageWindow window = PageWindow.of(filter);
+        List<AppointmentReturnDTO> appointments = appointmentRepository.findPageByStaff(staff.getId(), window.statuses(),
+                window.from(), window.to(), window.afterStart(), window.afterId(), window.limit());
 
-        return appointments.stream().map(a -> toDto(a)).toList();
+        return toPage(appointments, window.size());
 
     }
 
-    public List<AppointmentReturnDTO> listByClient() {
-        User logged = loggedUserService.get();
-        List<Appointment> appointments = appointmentRepository.findByClientId(logged.getId());
+    public AppointmentPageDTO listByClient(AppointmentFilterDTO filter) {
+        AuthenticatedUser logged = loggedUserService.current();
+
+        PageWindow window = PageWindow.of(filter);
+        List<AppointmentReturnDTO> appointments = appointmentRepository.findPageByClient(logged.getId(), window.statuses(),
+                window.from(), window.to(), window.afterStart(), window.afterId(), window.limit());
 
-        return appointments.stream().map(a -> toDto(a)).toList();
+        return toPage(appointments, window.size());
+    }
+
+    //Queries fetch size + 1 rows, the extra row only tells whether another page exists
+    private AppointmentPageDTO toPage(List<AppointmentReturnDTO> appointments, int size) {
+        if (appointments.size() <= size) {
+            return new AppointmentPageDTO(appointments, null);
+        }
+
+        List<AppointmentReturnDTO> page = appointments.subList(0, size);
+        AppointmentReturnDTO last = page.get(size - 1);
+
+        return new AppointmentPageDTO(page, encodeCursor(last.getStartTime(), last.getAppointmentId()));
+    }
+
+    private static String encodeCursor(LocalDateTime startTime, Integer id) {
+        String raw = startTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record PageWindow(Collection<AppointmentStatus> statuses, LocalDateTime from, LocalDateTime to,
+            LocalDateTime afterStart, Integer afterId, int size) {
+
+        static PageWindow of(AppointmentFilterDTO filter) {
+            LocalDateTime from = filter.getFrom() != null
+                    ? filter.getFrom()
+                    : LocalDate.now().with(DayOfWeek.MONDAY).atStartOfDay();
+            LocalDateTime to = filter.getTo() != null ? filter.getTo() : from.plusDays(7);
+
+            if (!to.isAfter(from)) {
+                throw new BusinessException("Intervalo de datas inválido.");
+            }
+
+            int size = filter.getSize() != null ? filter.getSize() : DEFAULT_PAGE_SIZE;
+            if (size < 1 || size > MAX_PAGE_SIZE) {
+                throw new BusinessException("Tamanho de página deve estar entre 1 e " + MAX_PAGE_SIZE + ".");
+            }
+
+            Collection<AppointmentStatus> statuses = filter.getStatus() != null
+                    ? EnumSet.of(filter.getStatus())
+                    : EnumSet.allOf(AppointmentStatus.class);
+
+            //Without a cursor the page starts at "from", ids are always positive
+            LocalDateTime afterStart = from;
+            Integer afterId = 0;
+            if (filter.getCursor() != null && !filter.getCursor().isBlank()) {
+                try {
+                    String raw = new String(Base64.getUrlDecoder().decode(filter.getCursor()), StandardCharsets.UTF_8);
+                    int separator = raw.lastIndexOf('|');
+                    afterStart = LocalDateTime.parse(raw.substring(0, separator));
+                    afterId = Integer.valueOf(raw.substring(separator + 1));
+                } catch (RuntimeException ex) {
+                    throw new BusinessException("Cursor inválido.");
+                }
+            }
+
+            return new PageWindow(statuses, from, to, afterStart, afterId, size);
+        }
+
+        Limit limit() {
+            return Limit.of(size + 1);
+        }
     }
 
 }
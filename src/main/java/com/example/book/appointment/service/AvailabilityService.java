@@ -0,0 +1,145 @@
+package com.example.book.appointment.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import com.example.book.appointment.dto.BusyIntervalDTO;
+import com.example.book.appointment.dto.StaffAvailabilityDTO;
+import com.example.book.appointment.enums.AppointmentStatus;
+import com.example.book.appointment.index.StaffDayBitmap;
+import com.example.book.appointment.index.StaffIntervals;
+import com.example.book.appointment.index.StaffScheduleIndex;
+import com.example.book.appointment.repository.AppointmentRepository;
+import com.example.book.business.model.Business;
+import com.example.book.business.repository.BusinessRepository;
+import com.example.book.business.schedule.CompiledSchedule;
+import com.example.book.business.schedule.WorkingHoursCache;
+import com.example.book.common.exceptions.BusinessException;
+import com.example.book.common.exceptions.ResourceNotFoundException;
+import com.example.book.servicecatalog.model.ServiceCatalog;
+import com.example.book.servicecatalog.repository.ServiceCatalogRepository;
+import com.example.book.staff.dto.StaffReturnDTO;
+import com.example.book.staff.repository.StaffRepository;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class AvailabilityService {
+
+    private static final long MAX_RANGE_DAYS = 31;
+
+    private final BusinessRepository businessRepository;
+    private final ServiceCatalogRepository serviceCatalogRepository;
+    private final StaffRepository staffRepository;
+    private final WorkingHoursCache workingHoursCache;
+    private final AppointmentRepository appointmentRepository;
+    private final StaffScheduleIndex staffScheduleIndex;
+
+    public List<StaffAvailabilityDTO> findAvailability(Integer businessId, Integer serviceId, LocalDate from,
+            LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new BusinessException("Data final deve ser depois da inicial.");
+        }
+
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new BusinessException("Intervalo máximo de 31 dias.");
+        }
+
+        Business business = businessRepository.findById(businessId)
+                .orElseThrow(() -> new ResourceNotFoundException("Business não encontrado."));
+
+        if (!business.isActive()) {
+            throw new BusinessException("Business desativado");
+        }
+
+        ServiceCatalog service = serviceCatalogRepository.findById(serviceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Serviço não encontrado."));
+
+        if (!service.getBusiness().getId().equals(businessId) || !service.isActivate()) {
+            throw new BusinessException("Serviço inválido.");
+        }
+
+        CompiledSchedule schedule = workingHoursCache.schedule(businessId);
+
+        int slotMinutes = staffScheduleIndex.getSlotMinutes();
+        Map<LocalDate, StaffDayBitmap> openByDate = new HashMap<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            if (schedule.hasHours(day.getDayOfWeek())) {
+                openByDate.put(day, schedule.openSlots(day, slotMinutes));
+            }
+        }
+
+        int run = Math.ceilDiv(service.getDuration(), slotMinutes);
+        LocalDateTime now = LocalDateTime.now();
+        List<StaffAvailabilityDTO> availability = new ArrayList<>();
+
+        //Booked slots come from the index's (staff, day) bitmaps, the database is read once only if it misses
+        Map<Integer, List<BusyIntervalDTO>> busyByStaff = null;
+
+        for (StaffReturnDTO staff : staffRepository.findActiveReturnByBusinessId(businessId)) {
+            StaffIntervals busy = null;
+            List<LocalDateTime> slots = new ArrayList<>();
+
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                StaffDayBitmap open = openByDate.get(day);
+                if (open == null) {
+                    continue;
+                }
+
+                StaffDayBitmap booked = staffScheduleIndex.bookedSlots(staff.getId(), day).orElse(null);
+                if (booked == null) {
+                    if (busyByStaff == null) {
+                        busyByStaff = databaseBusy(businessId, from, to);
+                    }
+                    if (busy == null) {
+                        busy = StaffIntervals.of(busyByStaff.getOrDefault(staff.getId(), List.of()));
+                    }
+                    booked = busy.rasterize(day, slotMinutes);
+                }
+
+                collectFreeRuns(open.andNot(booked), day.atStartOfDay(), run, now, slots);
+            }
+
+            availability.add(new StaffAvailabilityDTO(staff.getId(), staff.getPublicName(), slots));
+        }
+
+        return availability;
+    }
+
+    private Map<Integer, List<BusyIntervalDTO>> databaseBusy(Integer businessId, LocalDate from, LocalDate to) {
+        return appointmentRepository
+                .findBusyIntervalsByBusiness(businessId, AppointmentStatus.SCHEDULED, from.atStartOfDay(),
+                        to.plusDays(1).atStartOfDay())
+                .stream()
+                .collect(Collectors.groupingBy(BusyIntervalDTO::getStaffId));
+    }
+
+    private void collectFreeRuns(StaffDayBitmap free, LocalDateTime midnight, int run, LocalDateTime now,
+            List<LocalDateTime> slots) {
+        int slotMinutes = free.getSlotMinutes();
+
+        int runStart = free.nextSetBit(0);
+        while (runStart >= 0) {
+            int runEnd = free.nextClearBit(runStart);
+
+            for (int slot = runStart; slot + run <= runEnd; slot += run) {
+                LocalDateTime candidate = midnight.plusMinutes((long) slot * slotMinutes);
+                if (!candidate.isBefore(now)) {
+                    slots.add(candidate);
+                }
+            }
+
+            runStart = free.nextSetBit(runEnd);
+        }
+    }
+
+}
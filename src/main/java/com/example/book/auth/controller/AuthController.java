@@ -6,13 +6,19 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.example.book.auth.dto.AuthInputDto;
 import com.example.book.auth.dto.AuthReturnDTO;
+import com.example.book.auth.dto.RefreshInputDTO;
+import com.example.book.auth.service.AuthRateLimiter;
 import com.example.book.auth.service.AuthService;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 import lombok.AllArgsConstructor;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 
 @RestController
 @RequestMapping("/auth")
@@ -20,17 +26,32 @@ import org.springframework.web.bind.annotation.PostMapping;
 public class AuthController {
 
     private final AuthService authService;
+    private final AuthRateLimiter authRateLimiter;
 
     @PostMapping("/register")
     @ResponseStatus(HttpStatus.CREATED)
-    public AuthReturnDTO register(@RequestBody AuthInputDto input) {
+    public AuthReturnDTO register(@RequestBody AuthInputDto input, HttpServletRequest request) {
+        authRateLimiter.checkRegister(request.getRemoteAddr());
         return authService.register(input);
     }
 
     @PostMapping("/login")
     @ResponseStatus(HttpStatus.CREATED)
-    public AuthReturnDTO login(@RequestBody AuthInputDto input) {
+    public AuthReturnDTO login(@RequestBody AuthInputDto input, HttpServletRequest request) {
+        authRateLimiter.checkLogin(request.getRemoteAddr(), input.getEmail());
         return authService.login(input);
     }
 
+    @PostMapping("/refresh")
+    public AuthReturnDTO refresh(@RequestBody RefreshInputDTO input) {
+        return authService.refresh(input);
+    }
+
+    @PostMapping("/logout")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void logout(@RequestBody(required = false) RefreshInputDTO input,
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        authService.logout(input, authorization.substring("Bearer ".length()));
+    }
+
 }
@@ -9,5 +9,6 @@ import lombok.Setter;
 @AllArgsConstructor
 public class AuthReturnDTO {
     private String token;
+    private String refreshToken;
 
 }
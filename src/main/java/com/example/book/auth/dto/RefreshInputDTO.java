@@ -0,0 +1,16 @@
+package com.example.book.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshInputDTO {
+
+    private String refreshToken;
+
+}
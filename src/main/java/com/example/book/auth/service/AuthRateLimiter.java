@@ -0,0 +1,69 @@
+package com.example.book.auth.service;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.book.common.exceptions.TooManyRequestsException;
+import com.example.book.common.ratelimit.TokenBucketLimiter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+//Checked by AuthController before AuthService, so rejected attempts never reach BCrypt or the users table
+@Service
+public class AuthRateLimiter {
+
+    private final boolean enabled;
+    private final TokenBucketLimiter loginByIp;
+    private final TokenBucketLimiter loginByEmail;
+    private final TokenBucketLimiter registerByIp;
+
+    public AuthRateLimiter(
+            @Value("${auth.rate-limit.enabled:true}") boolean enabled,
+            @Value("${auth.rate-limit.max-keys:100000}") long maxKeys,
+            @Value("${auth.rate-limit.login.ip.capacity:20}") long loginIpCapacity,
+            @Value("${auth.rate-limit.login.ip.per-minute:10}") long loginIpPerMinute,
+            @Value("${auth.rate-limit.login.email.capacity:5}") long loginEmailCapacity,
+            @Value("${auth.rate-limit.login.email.per-minute:5}") long loginEmailPerMinute,
+            @Value("${auth.rate-limit.register.ip.capacity:5}") long registerIpCapacity,
+            @Value("${auth.rate-limit.register.ip.per-minute:2}") long registerIpPerMinute,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.loginByIp = new TokenBucketLimiter("login.ip", loginIpCapacity, loginIpPerMinute, maxKeys,
+                meterRegistry);
+        this.loginByEmail = new TokenBucketLimiter("login.email", loginEmailCapacity, loginEmailPerMinute, maxKeys,
+                meterRegistry);
+        this.registerByIp = new TokenBucketLimiter("register.ip", registerIpCapacity, registerIpPerMinute, maxKeys,
+                meterRegistry);
+    }
+
+    public void checkLogin(String clientIp, String email) {
+        if (!enabled) {
+            return;
+        }
+
+        acquire(loginByIp, clientIp);
+        if (email != null) {
+            acquire(loginByEmail, email.trim().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    public void checkRegister(String clientIp) {
+        if (enabled) {
+            acquire(registerByIp, clientIp);
+        }
+    }
+
+    private void acquire(TokenBucketLimiter limiter, String key) {
+        long waitNanos = limiter.tryAcquire(key);
+
+        if (waitNanos > 0) {
+            long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            throw new TooManyRequestsException("Muitas tentativas, tente novamente em " + seconds + " segundos.",
+                    seconds);
+        }
+    }
+
+}
@@ -1,13 +1,20 @@
 package com.example.book.auth.service;
 
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
 import com.example.book.auth.dto.AuthInputDto;
 import com.example.book.auth.dto.AuthReturnDTO;
+import com.example.book.auth.dto.RefreshInputDTO;
+import com.example.book.common.exceptions.UnauthorizedException;
+import com.example.book.common.security.AuthenticatedUser;
 import com.example.book.common.security.JwtService;
+import com.example.book.common.security.TokenRevocationList;
 import com.example.book.user.dto.UserInputDTO;
+import com.example.book.user.dto.UserReturnDTO;
 import com.example.book.user.service.UserService;
 
 import lombok.RequiredArgsConstructor;
@@ -19,22 +26,53 @@ public class AuthService {
     private final UserService userService;
     private final JwtService jwt;
     private final AuthenticationManager authenticationManager;
+    private final PasswordUpgradeService passwordUpgradeService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationList tokenRevocationList;
 
     public AuthReturnDTO register(AuthInputDto input) {
 
         UserInputDTO userInput = new UserInputDTO(input.getName(), input.getEmail(), input.getPassword());
-        userService.createUser(userInput);
-        String jwtToken = jwt.generateToken(input.getEmail());
-        return new AuthReturnDTO(jwtToken);
+        UserReturnDTO created = userService.createUser(userInput);
+        AuthenticatedUser principal = new AuthenticatedUser(created.getId(), created.getEmail(), null,
+                created.getRole(), true, 0);
+        return tokens(principal);
     }
 
     public AuthReturnDTO login(AuthInputDto input) {
-        authenticationManager
-                .authenticate(new UsernamePasswordAuthenticationToken(input.getEmail(), input.getPassword()));
+        Authentication authentication;
+        try {
+            authentication = authenticationManager
+                    .authenticate(new UsernamePasswordAuthenticationToken(input.getEmail(), input.getPassword()));
+        } catch (DisabledException ex) {
+            throw new UnauthorizedException("Usuário desativado.");
+        }
 
-        String token = jwt.generateToken(input.getEmail());
-        return new AuthReturnDTO(token);
+        AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+        passwordUpgradeService.upgradeInBackground(principal.getId(), input.getPassword());
 
+        return tokens(principal);
+
+    }
+
+    public AuthReturnDTO refresh(RefreshInputDTO input) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(input.getRefreshToken());
+        return new AuthReturnDTO(jwt.generateToken(rotation.user()), rotation.refreshToken());
+    }
+
+    //Access token is revoked in memory for the rest of its short life, the refresh token in the database
+    public void logout(RefreshInputDTO input, String accessToken) {
+        JwtService.VerifiedToken verified = jwt.verify(accessToken);
+
+        if (input != null && input.getRefreshToken() != null) {
+            refreshTokenService.revoke(input.getRefreshToken(), verified.userId());
+        }
+
+        tokenRevocationList.revokeToken(verified.tokenId());
+    }
+
+    private AuthReturnDTO tokens(AuthenticatedUser principal) {
+        return new AuthReturnDTO(jwt.generateToken(principal), refreshTokenService.issue(principal));
     }
 
 }
@@ -0,0 +1,72 @@
+package com.example.book.auth.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.example.book.common.exceptions.ServiceUnavailableException;
+import com.example.book.user.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+//Rewrites hashes made with an old algorithm or cost after a successful login, off the request thread
+@Service
+public class PasswordUpgradeService {
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Counter upgradedCounter;
+
+    public PasswordUpgradeService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+            @Value("${auth.password.upgrade-queue-capacity:100}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+
+        //Best effort, when the queue is full the upgrade is dropped and retried on the next login
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-upgrade-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.DiscardPolicy());
+
+        this.upgradedCounter = Counter.builder("auth.password.upgraded")
+                .description("Stored password hashes rewritten with the current algorithm and cost")
+                .register(meterRegistry);
+    }
+
+    public void upgradeInBackground(Integer userId, String rawPassword) {
+        executor.execute(() -> upgrade(userId, rawPassword));
+    }
+
+    public boolean upgrade(Integer userId, String rawPassword) {
+        String current = userRepository.findById(userId).map(user -> user.getPassword()).orElse(null);
+
+        if (current == null || !passwordEncoder.upgradeEncoding(current)) {
+            return false;
+        }
+
+        try {
+            if (userRepository.updatePasswordHash(userId, current, passwordEncoder.encode(rawPassword)) == 1) {
+                upgradedCounter.increment();
+                return true;
+            }
+        } catch (ServiceUnavailableException ex) {
+            //Hashing pool is busy with logins, the next login tries again
+        }
+
+        return false;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.example.book.auth.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.book.auth.model.RefreshToken;
+import com.example.book.auth.repository.RefreshTokenRepository;
+import com.example.book.common.exceptions.UnauthorizedException;
+import com.example.book.common.security.AuthenticatedUser;
+import com.example.book.user.model.User;
+import com.example.book.user.repository.UserRepository;
+
+//Long lived opaque tokens that are rotated on every use. Each login starts a family, presenting a rotated token
+//again revokes that family only, the user's sessions on other devices keep going
+@Service
+public class RefreshTokenService {
+
+    private static final String INVALID = "Refresh token inválido.";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final long expirationMillis;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, UserRepository userRepository,
+            @Value("${jwt.refresh-expiration:2592000000}") long expirationMillis) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.expirationMillis = expirationMillis;
+    }
+
+    public record Rotation(AuthenticatedUser user, String refreshToken) {
+    }
+
+    @Transactional
+    public String issue(AuthenticatedUser user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    private String issue(AuthenticatedUser user, String familyId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String raw = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(new RefreshToken(hash(raw), userRepository.getReferenceById(user.getId()),
+                familyId, user.getTokenVersion(), LocalDateTime.now().plus(expirationMillis, ChronoUnit.MILLIS)));
+
+        return raw;
+    }
+
+    //Revoking the family must survive the UnauthorizedException that follows it
+    @Transactional(noRollbackFor = UnauthorizedException.class)
+    public Rotation rotate(String raw) {
+        RefreshToken stored = find(raw);
+
+        //The conditional update serializes concurrent rotations on the row, only one of them sees it active
+        if (stored.isRevoked() || refreshTokenRepository.revokeIfActive(stored.getId()) == 0) {
+            revokeFamily(stored);
+            throw new UnauthorizedException(INVALID);
+        }
+
+        User user = stored.getUser();
+
+        if (stored.getExpiresAt().isBefore(LocalDateTime.now())
+                || !user.isActive()
+                || user.getTokenVersion() != stored.getTokenVersion()) {
+            throw new UnauthorizedException(INVALID);
+        }
+
+        AuthenticatedUser principal = AuthenticatedUser.from(user);
+        principal.eraseCredentials();
+
+        return new Rotation(principal,
+                issue(principal, stored.getFamilyId() != null ? stored.getFamilyId() : UUID.randomUUID().toString()));
+    }
+
+    //Revoked tokens stay until they expire so their reuse is still detected, after that they are only dead rows
+    @Scheduled(cron = "${auth.refresh-token.purge-cron:0 0 4 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    //Ignores a token of another user, the caller can only end their own session
+    @Transactional
+    public void revoke(String raw, Integer userId) {
+        refreshTokenRepository.findByTokenHash(hash(raw))
+                .filter(token -> token.getUser().getId().equals(userId))
+                .ifPresent(token -> token.setRevoked(true));
+    }
+
+    private void revokeFamily(RefreshToken stored) {
+        if (stored.getFamilyId() == null) {
+            refreshTokenRepository.revokeAllByUserId(stored.getUser().getId());
+        } else {
+            refreshTokenRepository.revokeFamily(stored.getFamilyId());
+        }
+    }
+
+    private RefreshToken find(String raw) {
+        if (raw == null || raw.isBlank()) {
+            throw new UnauthorizedException(INVALID);
+        }
+
+        return refreshTokenRepository.findByTokenHash(hash(raw))
+                .orElseThrow(() -> new UnauthorizedException(INVALID));
+    }
+
+    private static String hash(String raw) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
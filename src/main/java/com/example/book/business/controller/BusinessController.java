@@ -3,8 +3,13 @@ package com.example.book.business.controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.book.appointment.dto.StaffAvailabilityDTO;
+import com.example.book.appointment.service.AvailabilityService;
 import com.example.book.business.dto.BusinessInputDTO;
 import com.example.book.business.dto.BusinessReturnDTO;
+import com.example.book.business.dto.ClosureInputDTO;
+import com.example.book.business.dto.ClosureReturnDTO;
+import com.example.book.business.dto.WorkingDayInputDTO;
 import com.example.book.business.dto.WorkingHoursInputDTO;
 import com.example.book.business.dto.WorkingHoursReturnDTO;
 import com.example.book.business.service.BusinessService;
@@ -17,6 +22,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.http.HttpStatus;
@@ -26,6 +32,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.DeleteMapping;
 
 @RestController
 @RequestMapping("/business")
@@ -35,6 +42,7 @@ public class BusinessController {
     private final BusinessService businessService;
     private final ServiceCatalogService serviceCatalogService;
     private final StaffService staffService;
+    private final AvailabilityService availabilityService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -76,6 +84,13 @@ public class BusinessController {
         return staffService.listActiveStaffByBusiness(businessId);
     }
 
+    @GetMapping("/{businessId}/availability")
+    @ResponseStatus(HttpStatus.OK)
+    public List<StaffAvailabilityDTO> findAvailability(@PathVariable Integer businessId,
+            @RequestParam Integer serviceId, @RequestParam LocalDate from, @RequestParam LocalDate to) {
+        return availabilityService.findAvailability(businessId, serviceId, from, to);
+    }
+
     @PutMapping("/working-hours")
     @ResponseStatus(HttpStatus.OK)
     @PreAuthorize("hasAnyRole('OWNER', 'STAFF')")
@@ -83,6 +98,35 @@ public class BusinessController {
         return businessService.updateWorkingHours(input);
     }
 
+    @PutMapping("/working-hours/day")
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasAnyRole('OWNER', 'STAFF')")
+    public List<WorkingHoursReturnDTO> replaceWorkingDay(@RequestBody WorkingDayInputDTO input) {
+        return businessService.replaceWorkingDay(input);
+    }
+
+    @PostMapping("/{businessId}/closures")
+    @ResponseStatus(HttpStatus.CREATED)
+    @PreAuthorize("hasAnyRole('OWNER', 'STAFF')")
+    public ClosureReturnDTO addClosure(@PathVariable Integer businessId, @RequestBody ClosureInputDTO input) {
+        return businessService.addClosure(businessId, input);
+    }
+
+    @GetMapping("/{businessId}/closures")
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasAnyRole('OWNER', 'STAFF')")
+    public List<ClosureReturnDTO> listClosures(@PathVariable Integer businessId,
+            @RequestParam(required = false) LocalDate from) {
+        return businessService.listClosures(businessId, from);
+    }
+
+    @DeleteMapping("/{businessId}/closures/{closureId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PreAuthorize("hasAnyRole('OWNER', 'STAFF')")
+    public void removeClosure(@PathVariable Integer businessId, @PathVariable Integer closureId) {
+        businessService.removeClosure(businessId, closureId);
+    }
+
     @PutMapping("/{id}/desactivate")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @PreAuthorize("hasRole('OWNER')")
@@ -0,0 +1,17 @@
+package com.example.book.business.dto;
+
+import java.time.LocalTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeIntervalDTO {
+    private LocalTime startTime;
+    private LocalTime endTime;
+}
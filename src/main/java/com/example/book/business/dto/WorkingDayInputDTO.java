@@ -0,0 +1,17 @@
+package com.example.book.business.dto;
+
+import java.time.DayOfWeek;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class WorkingDayInputDTO {
+    private Integer businessId;
+    private DayOfWeek dayOfWeek;
+    private List<TimeIntervalDTO> intervals;
+}
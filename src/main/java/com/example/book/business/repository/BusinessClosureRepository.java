@@ -0,0 +1,17 @@
+package com.example.book.business.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.book.business.model.BusinessClosure;
+
+public interface BusinessClosureRepository extends JpaRepository<BusinessClosure, Integer> {
+
+        List<BusinessClosure> findByBusinessIdAndDateGreaterThanEqualOrderByDate(Integer businessId, LocalDate from);
+
+        Optional<BusinessClosure> findByIdAndBusinessId(Integer id, Integer businessId);
+
+}
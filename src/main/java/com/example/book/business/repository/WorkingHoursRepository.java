@@ -1,7 +1,7 @@
 package com.example.book.business.repository;
 
 import java.time.DayOfWeek;
-import java.util.Optional;
+import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
@@ -9,8 +9,10 @@ import com.example.book.business.model.WorkingHours;
 
 public interface WorkingHoursRepository extends JpaRepository<WorkingHours, Integer> {
 
-        Optional<WorkingHours> findByBusinessIdAndDayOfWeek(
+        List<WorkingHours> findByBusinessIdAndDayOfWeek(
                         Integer businessId,
                         DayOfWeek dayOfWeek);
 
+        List<WorkingHours> findByBusinessId(Integer businessId);
+
 }
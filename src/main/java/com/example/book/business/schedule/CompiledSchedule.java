@@ -0,0 +1,169 @@
+package com.example.book.business.schedule;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.example.book.appointment.index.StaffDayBitmap;
+import com.example.book.business.model.BusinessClosure;
+import com.example.book.business.model.WorkingHours;
+
+//Opening hours of one business compiled into sorted, merged minute-of-day intervals per weekday plus the closures
+//per date, so checking a booking is a binary search over k intervals instead of a scan
+public final class CompiledSchedule {
+
+    private static final int[] NONE = new int[0];
+
+    public static final CompiledSchedule CLOSED = compile(List.of(), List.of());
+
+    private final int[][] openStarts;
+    private final int[][] openEnds;
+    private final LocalDate[] closureDates;
+    private final int[][] closedStarts;
+    private final int[][] closedEnds;
+
+    private CompiledSchedule(int[][] openStarts, int[][] openEnds, LocalDate[] closureDates, int[][] closedStarts,
+            int[][] closedEnds) {
+        this.openStarts = openStarts;
+        this.openEnds = openEnds;
+        this.closureDates = closureDates;
+        this.closedStarts = closedStarts;
+        this.closedEnds = closedEnds;
+    }
+
+    public static CompiledSchedule compile(List<WorkingHours> workingHours, List<BusinessClosure> closures) {
+        List<List<int[]>> weekly = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            weekly.add(new ArrayList<>());
+        }
+        for (WorkingHours hours : workingHours) {
+            weekly.get(hours.getDayOfWeek().ordinal()).add(new int[] {
+                    StaffDayBitmap.minuteOfDay(hours.getStartTime()),
+                    StaffDayBitmap.minuteOfDay(hours.getEndTime()) });
+        }
+
+        int[][] openStarts = new int[7][];
+        int[][] openEnds = new int[7][];
+        for (int i = 0; i < 7; i++) {
+            int[][] merged = merge(weekly.get(i));
+            openStarts[i] = merged[0];
+            openEnds[i] = merged[1];
+        }
+
+        Map<LocalDate, List<int[]>> byDate = new TreeMap<>();
+        for (BusinessClosure closure : closures) {
+            byDate.computeIfAbsent(closure.getDate(), date -> new ArrayList<>()).add(closure.isWholeDay()
+                    ? new int[] { 0, StaffDayBitmap.MINUTES_PER_DAY }
+                    : new int[] { StaffDayBitmap.minuteOfDay(closure.getStartTime()),
+                            StaffDayBitmap.minuteOfDay(closure.getEndTime()) });
+        }
+
+        LocalDate[] closureDates = byDate.keySet().toArray(LocalDate[]::new);
+        int[][] closedStarts = new int[closureDates.length][];
+        int[][] closedEnds = new int[closureDates.length][];
+        for (int i = 0; i < closureDates.length; i++) {
+            int[][] merged = merge(byDate.get(closureDates[i]));
+            closedStarts[i] = merged[0];
+            closedEnds[i] = merged[1];
+        }
+
+        return new CompiledSchedule(openStarts, openEnds, closureDates, closedStarts, closedEnds);
+    }
+
+    public boolean hasHours(DayOfWeek day) {
+        return openStarts[day.ordinal()].length > 0;
+    }
+
+    //[fromMinute, toMinute) must fit inside one open interval and touch no closure of that date
+    public boolean isOpen(LocalDate date, int fromMinute, int toMinute) {
+        int day = date.getDayOfWeek().ordinal();
+        int interval = lastStartAtOrBefore(openStarts[day], fromMinute);
+        if (interval < 0 || openEnds[day][interval] < toMinute) {
+            return false;
+        }
+
+        int closure = Arrays.binarySearch(closureDates, date);
+        if (closure < 0) {
+            return true;
+        }
+
+        int closed = firstEndAfter(closedEnds[closure], fromMinute);
+        return closed == closedEnds[closure].length || closedStarts[closure][closed] >= toMinute;
+    }
+
+    public StaffDayBitmap openSlots(LocalDate date, int slotMinutes) {
+        int day = date.getDayOfWeek().ordinal();
+        StaffDayBitmap open = new StaffDayBitmap(slotMinutes);
+        for (int i = 0; i < openStarts[day].length; i++) {
+            open.markWithin(openStarts[day][i], openEnds[day][i]);
+        }
+
+        int closure = Arrays.binarySearch(closureDates, date);
+        if (closure < 0) {
+            return open;
+        }
+
+        StaffDayBitmap closed = new StaffDayBitmap(slotMinutes);
+        for (int i = 0; i < closedStarts[closure].length; i++) {
+            closed.markCovering(closedStarts[closure][i], closedEnds[closure][i]);
+        }
+        return open.andNot(closed);
+    }
+
+    //Sorts and joins overlapping or touching intervals, so starts and ends are both strictly increasing
+    private static int[][] merge(List<int[]> intervals) {
+        if (intervals.isEmpty()) {
+            return new int[][] { NONE, NONE };
+        }
+
+        intervals.sort((a, b) -> Integer.compare(a[0], b[0]));
+        int[] starts = new int[intervals.size()];
+        int[] ends = new int[intervals.size()];
+        int size = 0;
+
+        for (int[] interval : intervals) {
+            if (size > 0 && interval[0] <= ends[size - 1]) {
+                ends[size - 1] = Math.max(ends[size - 1], interval[1]);
+            } else {
+                starts[size] = interval[0];
+                ends[size] = interval[1];
+                size++;
+            }
+        }
+
+        return new int[][] { Arrays.copyOf(starts, size), Arrays.copyOf(ends, size) };
+    }
+
+    private static int lastStartAtOrBefore(int[] starts, int minute) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] <= minute) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+
+    private static int firstEndAfter(int[] ends, int minute) {
+        int low = 0;
+        int high = ends.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ends[mid] <= minute) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+}
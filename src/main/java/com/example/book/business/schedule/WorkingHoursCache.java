@@ -0,0 +1,98 @@
+package com.example.book.business.schedule;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.book.business.repository.BusinessClosureRepository;
+import com.example.book.business.repository.WorkingHoursRepository;
+import com.example.book.common.exceptions.ServiceUnavailableException;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+//Whole week and upcoming closures of each business compiled once, dropped by BusinessService whenever hours or
+//closures change. The ttl only bounds staleness for updates made on another instance
+@Component
+public class WorkingHoursCache {
+
+    private static final String LOAD_TIMEOUT = "Horários de funcionamento indisponíveis, tente novamente.";
+
+    private final WorkingHoursRepository workingHoursRepository;
+    private final BusinessClosureRepository businessClosureRepository;
+    private final AsyncCache<Integer, CompiledSchedule> schedules;
+    private final long loadTimeoutMillis;
+
+    public WorkingHoursCache(WorkingHoursRepository workingHoursRepository,
+            BusinessClosureRepository businessClosureRepository,
+            @Value("${business.working-hours-cache.max-size:10000}") long maxSize,
+            @Value("${business.working-hours-cache.ttl-minutes:10}") long ttlMinutes,
+            @Value("${business.working-hours-cache.load-timeout-ms:5000}") long loadTimeoutMillis,
+            MeterRegistry meterRegistry) {
+        this.workingHoursRepository = workingHoursRepository;
+        this.businessClosureRepository = businessClosureRepository;
+        this.loadTimeoutMillis = loadTimeoutMillis;
+        this.schedules = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, schedules, "working-hours");
+    }
+
+    public CompiledSchedule schedule(Integer businessId) {
+        //Caffeine runs loaders inside ConcurrentHashMap.compute, whose monitor would pin a virtual thread for the
+        //whole query. Only an empty future goes in there, the first caller loads it afterwards and the rest wait
+        CompletableFuture<CompiledSchedule> loading = new CompletableFuture<>();
+        CompletableFuture<CompiledSchedule> schedule = schedules.get(businessId, (id, executor) -> loading);
+
+        if (schedule == loading) {
+            try {
+                loading.complete(load(businessId));
+            } catch (Throwable ex) {
+                //Errors too, otherwise everyone already waiting on this future would wait on it forever
+                loading.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+
+        try {
+            return schedule.get(loadTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            //Loader stuck or gone, drop its future so a later request loads again
+            schedules.asMap().remove(businessId, schedule);
+            throw new ServiceUnavailableException(LOAD_TIMEOUT);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(LOAD_TIMEOUT);
+        }
+    }
+
+    public void invalidate(Integer businessId) {
+        schedules.synchronous().invalidate(businessId);
+    }
+
+    private CompiledSchedule load(Integer businessId) {
+        return CompiledSchedule.compile(workingHoursRepository.findByBusinessId(businessId),
+                businessClosureRepository.findByBusinessIdAndDateGreaterThanEqualOrderByDate(businessId,
+                        LocalDate.now().minusDays(1)));
+    }
+
+}
@@ -1,15 +1,28 @@
 package com.example.book.business.service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.book.business.dto.BusinessInputDTO;
 import com.example.book.business.dto.BusinessReturnDTO;
+import com.example.book.business.dto.ClosureInputDTO;
+import com.example.book.business.dto.ClosureReturnDTO;
+import com.example.book.business.dto.TimeIntervalDTO;
+import com.example.book.business.dto.WorkingDayInputDTO;
 import com.example.book.business.dto.WorkingHoursInputDTO;
 import com.example.book.business.dto.WorkingHoursReturnDTO;
 import com.example.book.business.model.Business;
+import com.example.book.business.model.BusinessClosure;
 import com.example.book.business.model.WorkingHours;
+import com.example.book.business.repository.BusinessClosureRepository;
 import com.example.book.business.repository.BusinessRepository;
 import com.example.book.business.repository.WorkingHoursRepository;
+import com.example.book.business.schedule.WorkingHoursCache;
 import com.example.book.common.exceptions.BusinessException;
 import com.example.book.common.exceptions.ResourceNotFoundException;
 import com.example.book.staff.access.StaffAccessService;
@@ -23,6 +36,9 @@ public class BusinessService {
     private final BusinessRepository businessRepository;
     private final WorkingHoursRepository workingHoursRepository;
     private final StaffAccessService staffAccessService;
+    private final WorkingHoursCache workingHoursCache;
+    private final BusinessClosureRepository businessClosureRepository;
+    private final TransactionTemplate transactionTemplate;
 
     private BusinessReturnDTO toDTO(Business business) {
         return new BusinessReturnDTO(
@@ -62,28 +78,124 @@ public class BusinessService {
         return toDTO(business);
     }
 
+    private WorkingHoursReturnDTO toDTO(WorkingHours workingHours, Business business) {
+        return new WorkingHoursReturnDTO(workingHours.getId(), workingHours.getDayOfWeek(),
+                workingHours.getStartTime(), workingHours.getEndTime(), business.getId());
+    }
+
+    private ClosureReturnDTO toDTO(BusinessClosure closure, Integer businessId) {
+        return new ClosureReturnDTO(closure.getId(), closure.getDate(), closure.getStartTime(),
+                closure.getEndTime(), closure.getReason(), businessId);
+    }
+
+    //Keeps the single interval endpoint, the day ends up with exactly this interval
     public WorkingHoursReturnDTO updateWorkingHours(WorkingHoursInputDTO input) {
+        return replaceWorkingDay(new WorkingDayInputDTO(input.getBusinessId(), input.getDayOfWeek(),
+                List.of(new TimeIntervalDTO(input.getStartTime(), input.getEndTime())))).get(0);
+    }
+
+    public List<WorkingHoursReturnDTO> replaceWorkingDay(WorkingDayInputDTO input) {
         Business business = businessRepository.findById(input.getBusinessId())
                 .orElseThrow(() -> new ResourceNotFoundException("Business não encontrado."));
 
         staffAccessService.validateStaffAccessToBusiness(business.getId());
 
-        if (!input.getStartTime().isBefore(input.getEndTime())) {
+        List<TimeIntervalDTO> intervals = sortedIntervals(input.getIntervals());
+
+        List<WorkingHours> saved = transactionTemplate.execute(status -> {
+            List<WorkingHours> current = workingHoursRepository
+                    .findByBusinessIdAndDayOfWeek(business.getId(), input.getDayOfWeek());
+            List<WorkingHours> next = new ArrayList<>();
+
+            //Reuses the existing rows so their ids stay stable, extra rows are removed
+            for (int i = 0; i < intervals.size(); i++) {
+                WorkingHours workingHours = i < current.size()
+                        ? current.get(i)
+                        : new WorkingHours(input.getDayOfWeek(), null, null, business);
+                workingHours.setStartTime(intervals.get(i).getStartTime());
+                workingHours.setEndTime(intervals.get(i).getEndTime());
+                next.add(workingHours);
+            }
+
+            if (current.size() > intervals.size()) {
+                workingHoursRepository.deleteAll(current.subList(intervals.size(), current.size()));
+            }
+            next.forEach(workingHoursRepository::save);
+            return next;
+        });
+
+        workingHoursCache.invalidate(business.getId());
+
+        return saved.stream().map(workingHours -> toDTO(workingHours, business)).toList();
+    }
+
+    public ClosureReturnDTO addClosure(Integer businessId, ClosureInputDTO input) {
+        Business business = businessRepository.findById(businessId)
+                .orElseThrow(() -> new ResourceNotFoundException("Business não encontrado."));
+
+        staffAccessService.validateStaffAccessToBusiness(business.getId());
+
+        if (input.getDate() == null) {
+            throw new BusinessException("Data obrigatória.");
+        }
+
+        if ((input.getStartTime() == null) != (input.getEndTime() == null)) {
+            throw new BusinessException("Informe início e fim, ou nenhum para fechar o dia todo.");
+        }
+
+        if (input.getStartTime() != null && !input.getStartTime().isBefore(input.getEndTime())) {
             throw new BusinessException("Horário inicial deve ser antes do final.");
         }
 
-        WorkingHours workingHours = workingHoursRepository
-                .findByBusinessIdAndDayOfWeek(business.getId(), input.getDayOfWeek())
-                .orElseGet(() -> new WorkingHours(input.getDayOfWeek(), input.getStartTime(), input.getEndTime(),
-                        business));
+        BusinessClosure closure = new BusinessClosure(input.getDate(), input.getStartTime(), input.getEndTime(),
+                input.getReason(), business);
+        businessClosureRepository.save(closure);
+        workingHoursCache.invalidate(business.getId());
+
+        return toDTO(closure, business.getId());
+    }
+
+    public List<ClosureReturnDTO> listClosures(Integer businessId, LocalDate from) {
+        staffAccessService.validateStaffAccessToBusiness(businessId);
+
+        return businessClosureRepository
+                .findByBusinessIdAndDateGreaterThanEqualOrderByDate(businessId, from == null ? LocalDate.now() : from)
+                .stream()
+                .map(closure -> toDTO(closure, businessId))
+                .toList();
+    }
+
+    public void removeClosure(Integer businessId, Integer closureId) {
+        staffAccessService.validateStaffAccessToBusiness(businessId);
 
-        workingHours.setStartTime(input.getStartTime());
-        workingHours.setEndTime(input.getEndTime());
+        BusinessClosure closure = businessClosureRepository.findByIdAndBusinessId(closureId, businessId)
+                .orElseThrow(() -> new ResourceNotFoundException("Fechamento não encontrado."));
+
+        businessClosureRepository.delete(closure);
+        workingHoursCache.invalidate(businessId);
+    }
 
-        workingHoursRepository.save(workingHours);
+    private List<TimeIntervalDTO> sortedIntervals(List<TimeIntervalDTO> intervals) {
+        if (intervals == null || intervals.isEmpty()) {
+            throw new BusinessException("Informe ao menos um intervalo.");
+        }
+
+        List<TimeIntervalDTO> sorted = new ArrayList<>(intervals);
+        sorted.sort(Comparator.comparing(TimeIntervalDTO::getStartTime,
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        for (int i = 0; i < sorted.size(); i++) {
+            TimeIntervalDTO interval = sorted.get(i);
+            if (interval.getStartTime() == null || interval.getEndTime() == null
+                    || !interval.getStartTime().isBefore(interval.getEndTime())) {
+                throw new BusinessException("Horário inicial deve ser antes do final.");
+            }
+            if (i > 0 && interval.getStartTime().isBefore(sorted.get(i - 1).getEndTime())) {
+                throw new BusinessException("Intervalos de horário sobrepostos.");
+            }
+        }
 
-        return new WorkingHoursReturnDTO(workingHours.getId(), workingHours.getDayOfWeek(), workingHours.getStartTime(),
-                workingHours.getEndTime(), business.getId());
+        return sorted;
     }
 
     public void desactivateBusiness(Integer businessId) {
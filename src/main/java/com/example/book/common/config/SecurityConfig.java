@@ -1,19 +1,31 @@
 package com.example.book.common.config;
 
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import com.example.book.common.security.BoundedPasswordEncoder;
 import com.example.book.common.security.JwtAuthenticationFilter;
+import com.example.book.common.security.PasswordHashCalibrator;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 
 @Configuration
@@ -23,6 +35,22 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtFilter;
 
+    //Actuator listens on management.server.port, which is never published outside the private network. Scrapers
+    //carry no JWT, so that port is open and the application port refuses /actuator altogether
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public SecurityFilterChain managementFilterChain(HttpSecurity http,
+            @Value("${management.server.port:-1}") int managementPort) throws Exception {
+
+        http
+                .securityMatcher(request -> request.getLocalPort() == managementPort)
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> auth.anyRequest().permitAll());
+
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
 
@@ -34,8 +62,10 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(
                                 "/auth/login",
-                                "/auth/register")
+                                "/auth/register",
+                                "/auth/refresh")
                         .permitAll()
+                        .requestMatchers("/actuator/**").denyAll()
                         .anyRequest().authenticated())
 
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
@@ -43,9 +73,32 @@ public class SecurityConfig {
         return http.build();
     }
 
+    //New hashes use auth.password.algorithm, hashes without an {id} prefix are the legacy BCrypt ones
+    //and get rewritten on the next successful login. BCrypt runs on a bounded pool so login bursts
+    //cannot take every request thread
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${auth.password.algorithm:bcrypt}") String algorithm,
+            @Value("${auth.password.bcrypt-strength:10}") int strength,
+            @Value("${auth.password.target-hash-ms:250}") long targetHashMillis,
+            @Value("${auth.password.pool-size:2}") int poolSize,
+            @Value("${auth.password.queue-capacity:32}") int queueCapacity,
+            @Value("${auth.password.timeout-ms:3000}") long timeoutMillis,
+            MeterRegistry meterRegistry) {
+        int bcryptStrength = strength > 0
+                ? strength
+                : PasswordHashCalibrator.bcryptStrength(Duration.ofMillis(targetHashMillis));
+
+        Gauge.builder("auth.password.bcrypt.strength", () -> bcryptStrength)
+                .description("BCrypt cost used for new password hashes")
+                .register(meterRegistry);
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(algorithm, Map.of(
+                "bcrypt", new BCryptPasswordEncoder(bcryptStrength),
+                "pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8()));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+
+        return new BoundedPasswordEncoder(encoder, poolSize, queueCapacity, timeoutMillis, meterRegistry);
     }
 
     @Bean
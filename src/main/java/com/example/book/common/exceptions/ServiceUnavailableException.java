@@ -0,0 +1,10 @@
+package com.example.book.common.exceptions;
+
+//When a bounded resource is saturated and the request should be retried later
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.example.book.common.exceptions;
+
+//When a client exceeded a rate limit, retryAfterSeconds tells when to try again
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.example.book.common.metrics;
+
+import java.lang.reflect.Method;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import com.example.book.common.exceptions.BusinessException;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+//Times every public service method by business and outcome, and records how many rows each repository call
+//returned. Query timing itself is Spring Boot's spring.data.repository.invocations, tagged by
+//TenantRepositoryTagsProvider
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final MeterRegistry meterRegistry;
+    private final TenantTags tenantTags;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry, TenantTags tenantTags) {
+        this.meterRegistry = meterRegistry;
+        this.tenantTags = tenantTags;
+    }
+
+    @Around("execution(public * com.example.book..service.*Service.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Integer businessId = tenantTags.businessId(method, joinPoint.getArgs());
+        String business = businessId == null ? tenantTags.current() : tenantTags.tag(businessId);
+
+        String previous = tenantTags.enter(business);
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            tenantTags.exit(previous);
+            if (failure == null && businessId != null) {
+                business = tenantTags.admit(businessId);
+            }
+            Timer.builder("service.calls")
+                    .description("Public service method calls by business and outcome")
+                    .tag("service", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", method.getName())
+                    .tag("business", business)
+                    .tag("outcome", outcome(failure))
+                    .serviceLevelObjectives(Duration.ofMillis(10), Duration.ofMillis(50), Duration.ofMillis(100),
+                            Duration.ofMillis(500), Duration.ofSeconds(1))
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Around("execution(public * org.springframework.data.repository.Repository+.*(..))")
+    public Object measureResults(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+
+        int size = size(result);
+        if (size >= 0) {
+            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            String business = tenantTags.tag(method, joinPoint.getArgs());
+
+            DistributionSummary.builder("repository.results")
+                    .description("Rows returned by a repository call")
+                    .tag("repository", repositoryName(joinPoint.getThis()))
+                    .tag("method", method.getName())
+                    .tag("business", business.equals(TenantTags.NONE) ? tenantTags.current() : business)
+                    .serviceLevelObjectives(1, 10, 100, 1000, 10000)
+                    .register(meterRegistry)
+                    .record(size);
+        }
+
+        return result;
+    }
+
+    //success, business.<message> for a BusinessException, otherwise the exception name
+    public static String outcome(Throwable failure) {
+        if (failure == null) {
+            return "success";
+        }
+        if (failure instanceof BusinessException) {
+            return "business." + messageKey(failure.getMessage());
+        }
+        return failure.getClass().getSimpleName();
+    }
+
+    static String messageKey(String message) {
+        if (message == null) {
+            return "unknown";
+        }
+
+        String key = Normalizer.normalize(message, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z0-9]+", "_")
+                .replaceAll("^_|_$", "");
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    //-1 for results that are not rows, such as counts, flags or streams consumed later
+    private static int size(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return -1;
+    }
+
+    private String repositoryName(Object proxy) {
+        return repositoryNames.computeIfAbsent(proxy.getClass(), type -> {
+            Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(proxy);
+            return interfaces.length > 0 ? interfaces[0].getSimpleName() : type.getSimpleName();
+        });
+    }
+
+}
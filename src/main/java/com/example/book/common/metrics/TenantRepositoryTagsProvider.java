@@ -0,0 +1,30 @@
+package com.example.book.common.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.data.metrics.DefaultRepositoryTagsProvider;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Tag;
+
+//Adds the business of the enclosing service call to Spring Boot's repository invocation timer
+@Component
+public class TenantRepositoryTagsProvider extends DefaultRepositoryTagsProvider {
+
+    private final TenantTags tenantTags;
+
+    public TenantRepositoryTagsProvider(TenantTags tenantTags) {
+        this.tenantTags = tenantTags;
+    }
+
+    @Override
+    public Iterable<Tag> repositoryTags(RepositoryMethodInvocation invocation) {
+        List<Tag> tags = new ArrayList<>();
+        super.repositoryTags(invocation).forEach(tags::add);
+        tags.add(Tag.of("business", tenantTags.current()));
+        return tags;
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.example.book.common.metrics;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import com.example.book.business.repository.BusinessRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+//Business id tag values for service and repository meters. Only the first maxValues businesses get their own
+//series, later ones share "other" so a large tenant count can't blow up the registry. A slot is only given to an
+//existing business after one of its calls succeeded, made-up ids in request paths never take one
+@Component
+public class TenantTags {
+
+    public static final String NONE = "none";
+    public static final String OTHER = "other";
+
+    private static final Function<Object[], Integer> UNRESOLVED = args -> null;
+
+    private final int maxValues;
+    private final BusinessRepository businessRepository;
+    private final Set<String> tagged = ConcurrentHashMap.newKeySet();
+    private final Map<Method, Function<Object[], Integer>> resolvers = new ConcurrentHashMap<>();
+    private final ThreadLocal<String> current = new ThreadLocal<>();
+
+    //Lazy since the repository's own invocation metrics are tagged through this class
+    public TenantTags(@Value("${metrics.tenant.max-values:200}") int maxValues,
+            @Lazy BusinessRepository businessRepository, MeterRegistry meterRegistry) {
+        this.maxValues = maxValues;
+        this.businessRepository = businessRepository;
+
+        Gauge.builder("metrics.tenant.tagged", tagged, Set::size)
+                .description("Businesses with their own business tag value, the rest are tagged as other")
+                .register(meterRegistry);
+    }
+
+    public String tag(Integer businessId) {
+        if (businessId == null) {
+            return NONE;
+        }
+
+        String value = businessId.toString();
+        return tagged.contains(value) ? value : OTHER;
+    }
+
+    //Called after a successful call for the business, returns its tag from then on
+    public String admit(Integer businessId) {
+        String value = tag(businessId);
+        if (!value.equals(OTHER) || tagged.size() >= maxValues || !businessRepository.existsById(businessId)) {
+            return value;
+        }
+
+        //Racing threads may pass the size check together, the guard can overshoot by a few values at most
+        value = businessId.toString();
+        tagged.add(value);
+        return value;
+    }
+
+    //Business of the call, taken from a businessId parameter or from an argument exposing getBusinessId()
+    public Integer businessId(Method method, Object[] args) {
+        return resolvers.computeIfAbsent(method, TenantTags::resolver).apply(args);
+    }
+
+    public String tag(Method method, Object[] args) {
+        return tag(businessId(method, args));
+    }
+
+    //Tag of the service call running on this thread, repository calls inherit it
+    public String current() {
+        String value = current.get();
+        return value == null ? NONE : value;
+    }
+
+    public String enter(String value) {
+        String previous = current.get();
+        current.set(value);
+        return previous;
+    }
+
+    public void exit(String previous) {
+        if (previous == null) {
+            current.remove();
+        } else {
+            current.set(previous);
+        }
+    }
+
+    private static Function<Object[], Integer> resolver(Method method) {
+        Parameter[] parameters = method.getParameters();
+
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].getName().equals("businessId") && parameters[i].getType() == Integer.class) {
+                int index = i;
+                return args -> (Integer) args[index];
+            }
+        }
+
+        for (int i = 0; i < parameters.length; i++) {
+            try {
+                Method getter = parameters[i].getType().getMethod("getBusinessId");
+                if (getter.getReturnType() == Integer.class) {
+                    int index = i;
+                    return args -> businessIdOf(getter, args[index]);
+                }
+            } catch (NoSuchMethodException ex) {
+                //Not an input carrying a business
+            }
+        }
+
+        return UNRESOLVED;
+    }
+
+    private static Integer businessIdOf(Method getter, Object input) {
+        if (input == null) {
+            return null;
+        }
+
+        try {
+            return (Integer) getter.invoke(input);
+        } catch (ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+
+}
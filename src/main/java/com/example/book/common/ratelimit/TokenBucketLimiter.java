@@ -0,0 +1,70 @@
+package com.example.book.common.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+//Token bucket per key stored as a single theoretical arrival time (GCRA), acquiring is one CAS and never locks
+public class TokenBucketLimiter {
+
+    private final long capacity;
+    private final long intervalNanos;
+    private final LongSupplier nanoClock;
+    private final Cache<String, AtomicLong> buckets;
+    private final Counter rejectedCounter;
+
+    public TokenBucketLimiter(String name, long capacity, long refillPerMinute, long maxKeys,
+            MeterRegistry meterRegistry) {
+        this(name, capacity, refillPerMinute, maxKeys, meterRegistry, System::nanoTime);
+    }
+
+    public TokenBucketLimiter(String name, long capacity, long refillPerMinute, long maxKeys,
+            MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        if (capacity <= 0 || refillPerMinute <= 0) {
+            throw new IllegalArgumentException("Limite " + name + " deve ter capacidade e recarga maiores que zero.");
+        }
+
+        this.capacity = capacity;
+        this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / refillPerMinute;
+        this.nanoClock = nanoClock;
+
+        //An idle bucket is full again after capacity intervals, dropping it then is the same as keeping it
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(intervalNanos * capacity))
+                .build();
+        this.rejectedCounter = Counter.builder("auth.rate-limit.rejected")
+                .description("Requests rejected by a rate limit before any password or user lookup")
+                .tag("limiter", name)
+                .register(meterRegistry);
+    }
+
+    //Returns 0 when a token was taken, otherwise the nanos until the next one is available
+    public long tryAcquire(String key) {
+        AtomicLong arrival = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        long burst = intervalNanos * capacity;
+
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long current = arrival.get();
+            long next = (current == Long.MIN_VALUE ? now : Math.max(current, now)) + intervalNanos;
+
+            if (next - now > burst) {
+                rejectedCounter.increment();
+                return next - now - burst;
+            }
+
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.example.book.common.security;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.example.book.user.enums.UserRoleEnum;
+import com.example.book.user.model.User;
+
+import lombok.Getter;
+
+//Principal kept in the security context, carries what services need so they dont reload the user
+@Getter
+public class AuthenticatedUser implements UserDetails, CredentialsContainer {
+
+    private final Integer id;
+    private final String email;
+    private String password;
+    private final UserRoleEnum role;
+    private final boolean active;
+    private final int tokenVersion;
+    private final List<GrantedAuthority> authorities;
+
+    public AuthenticatedUser(Integer id, String email, String password, UserRoleEnum role, boolean active,
+            int tokenVersion) {
+        this.id = id;
+        this.email = email;
+        this.password = password;
+        this.role = role;
+        this.active = active;
+        this.tokenVersion = tokenVersion;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getPassword(), user.getRole(),
+                user.isActive(), user.getTokenVersion());
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    //DaoAuthenticationProvider checks it before the password, so a deactivated user cannot log back in
+    @Override
+    public boolean isEnabled() {
+        return active;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        password = null;
+    }
+
+}
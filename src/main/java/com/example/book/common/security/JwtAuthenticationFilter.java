@@ -1,14 +1,17 @@
 package com.example.book.common.security;
 
 import java.io.IOException;
+import java.util.Optional;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,14 +20,20 @@ import jakarta.servlet.http.HttpServletResponse;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final UserDetailsServiceImpl userDetailsService;
+    private final TokenRevocationList tokenRevocationList;
+    private final JwtFilterMode mode;
 
     public JwtAuthenticationFilter(
-            JwtService jwtService,
-            UserDetailsServiceImpl userDetailsService) {
-        this.jwtService = jwtService;
+            VerifiedTokenCache verifiedTokenCache,
+            UserDetailsServiceImpl userDetailsService,
+            TokenRevocationList tokenRevocationList,
+            @Value("${jwt.filter-mode:CLAIMS}") JwtFilterMode mode) {
+        this.verifiedTokenCache = verifiedTokenCache;
         this.userDetailsService = userDetailsService;
+        this.tokenRevocationList = tokenRevocationList;
+        this.mode = mode;
     }
 
     @Override
@@ -42,19 +51,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String token = authHeader.substring(7);
-        String email = jwtService.extractEmail(token);
 
-        if (email != null &&
-                SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            AuthenticatedUser principal = authenticate(token);
 
-            if (jwtService.isTokenValid(token, userDetails.getUsername())) {
+            if (principal != null) {
 
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
+                        principal,
                         null,
-                        userDetails.getAuthorities());
+                        principal.getAuthorities());
 
                 authToken.setDetails(
                         new WebAuthenticationDetailsSource().buildDetails(request));
@@ -66,4 +73,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private AuthenticatedUser authenticate(String token) {
+        try {
+            JwtService.VerifiedToken verified = verifiedTokenCache.verify(token);
+            if (tokenRevocationList.isRevoked(verified)) {
+                return null;
+            }
+
+            Optional<AuthenticatedUser> fromClaims = verified.principal();
+            if (mode == JwtFilterMode.CLAIMS && fromClaims.isPresent()) {
+                return fromClaims.get();
+            }
+
+            //Database mode, and tokens issued before the claims existed
+            AuthenticatedUser userDetails = userDetailsService.loadUserByUsername(verified.email());
+            userDetails.eraseCredentials();
+
+            if (fromClaims.isPresent() && fromClaims.get().getTokenVersion() != userDetails.getTokenVersion()) {
+                return null;
+            }
+
+            return userDetails;
+        } catch (JwtException | UsernameNotFoundException ex) {
+            return null;
+        }
+    }
 }
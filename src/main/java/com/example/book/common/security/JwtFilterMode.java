@@ -0,0 +1,8 @@
+package com.example.book.common.security;
+
+public enum JwtFilterMode {
+    //Principal rebuilt from the signed claims, no user lookup per request
+    CLAIMS,
+    //Principal reloaded from the users table on every request
+    DATABASE
+}
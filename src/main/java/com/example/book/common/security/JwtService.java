@@ -1,54 +1,89 @@
 package com.example.book.common.security;
 
-import java.security.Key;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+
+import javax.crypto.SecretKey;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.example.book.user.enums.UserRoleEnum;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+    public static final String VERSION_CLAIM = "ver";
+
+    //HS256 needs a key of at least 256 bits
+    private static final int MIN_SECRET_BYTES = 32;
+
+    //Key and parser are immutable and thread safe, building them per call cost more than the HMAC itself
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final long expirationTime;
 
-    @Value("${jwt.expiration}")
-    private Long expirationTime;
+    public JwtService(@Value("${jwt.secret}") String secretKey, @Value("${jwt.expiration}") long expirationTime) {
+        byte[] secret = secretKey == null ? new byte[0] : secretKey.getBytes(StandardCharsets.UTF_8);
+        if (secret.length < MIN_SECRET_BYTES) {
+            throw new IllegalArgumentException("jwt.secret deve ter pelo menos " + MIN_SECRET_BYTES
+                    + " bytes, configure a variável de ambiente JWT_SECRET.");
+        }
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.signingKey = Keys.hmacShaKeyFor(secret);
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.expirationTime = expirationTime;
     }
 
-    public String generateToken(String email) {
+    public String generateToken(AuthenticatedUser user) {
+        long now = System.currentTimeMillis();
+
         return Jwts.builder()
-                .setSubject(email)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + expirationTime))
-                .signWith(getSigningKey())
+                .id(UUID.randomUUID().toString())
+                .subject(user.getEmail())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLE_CLAIM, user.getRole().name())
+                .claim(VERSION_CLAIM, user.getTokenVersion())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expirationTime))
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String extractEmail(String token) {
-        return getAllClaims(token).getSubject();
-    }
+    //Signature and expiration are checked once here, throws JwtException when either fails
+    public VerifiedToken verify(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
 
-    public boolean isTokenValid(String token, String email) {
-        return extractEmail(token).equals(email) && !isTokenExpired(token);
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.get(USER_ID_CLAIM, Integer.class),
+                claims.get(ROLE_CLAIM, String.class),
+                claims.get(VERSION_CLAIM, Integer.class),
+                claims.getId(),
+                claims.getExpiration() == null ? null : claims.getExpiration().toInstant());
     }
 
-    private boolean isTokenExpired(String token) {
-        return getAllClaims(token).getExpiration().before(new Date());
-    }
+    public record VerifiedToken(String email, Integer userId, String role, Integer tokenVersion, String tokenId,
+            Instant expiresAt) {
+
+        //Empty for tokens issued before the id, role and version claims existed
+        public Optional<AuthenticatedUser> principal() {
+            if (userId == null || role == null || tokenVersion == null) {
+                return Optional.empty();
+            }
 
-    private Claims getAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+            return Optional.of(new AuthenticatedUser(userId, email, null, UserRoleEnum.valueOf(role), true,
+                    tokenVersion));
+        }
     }
 }
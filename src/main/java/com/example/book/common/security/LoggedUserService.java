@@ -4,6 +4,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+import com.example.book.common.exceptions.UnauthorizedException;
 import com.example.book.user.model.User;
 import com.example.book.user.repository.UserRepository;
 
@@ -15,10 +16,19 @@ public class LoggedUserService {
 
     private final UserRepository userRepository;
 
-    public User get() {
+    public AuthenticatedUser current() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        return userRepository.findByEmail(auth.getName())
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+
+        if (auth == null || !(auth.getPrincipal() instanceof AuthenticatedUser user)) {
+            throw new UnauthorizedException("Usuário não autenticado.");
+        }
+
+        return user;
+    }
+
+    //Only for setting associations, the proxy is not loaded unless a field other than the id is read
+    public User reference() {
+        return userRepository.getReferenceById(current().getId());
     }
 
 }
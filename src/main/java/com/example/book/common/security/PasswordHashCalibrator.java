@@ -0,0 +1,44 @@
+package com.example.book.common.security;
+
+import java.time.Duration;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+//Measures BCrypt on this host and picks the highest cost whose single hash still fits the target latency
+public final class PasswordHashCalibrator {
+
+    public static final int MIN_STRENGTH = 10;
+    public static final int MAX_STRENGTH = 16;
+
+    private PasswordHashCalibrator() {
+    }
+
+    public static int bcryptStrength(Duration target) {
+        //Warms up the JIT so the first measured cost is not inflated
+        new BCryptPasswordEncoder(4).encode("calibration");
+
+        int chosen = MIN_STRENGTH;
+        for (int strength = MIN_STRENGTH; strength <= MAX_STRENGTH; strength++) {
+            long elapsed = measure(strength);
+            if (Duration.ofNanos(elapsed).compareTo(target) > 0) {
+                break;
+            }
+            chosen = strength;
+
+            //Each step doubles the cost, stop before the next one would clearly overshoot
+            if (Duration.ofNanos(elapsed * 2).compareTo(target) > 0) {
+                break;
+            }
+        }
+
+        return chosen;
+    }
+
+    public static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long start = System.nanoTime();
+        encoder.encode("calibration");
+        return System.nanoTime() - start;
+    }
+
+}
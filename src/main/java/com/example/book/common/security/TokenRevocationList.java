@@ -0,0 +1,125 @@
+package com.example.book.common.security;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+//In-memory revocations checked on every request without I/O. Revoked token ids go to a Bloom filter backed
+//by an exact set, so the common "not revoked" answer never touches the set. Users whose tokens were revoked
+//keep their minimum valid version. Entries live in two generations of one access token lifetime each, after
+//that every token they could match has expired anyway
+@Component
+public class TokenRevocationList {
+
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+    private final long generationNanos;
+    private final LongSupplier nanoClock;
+
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    @Autowired
+    public TokenRevocationList(
+            @Value("${jwt.expiration}") long accessTokenMillis,
+            @Value("${jwt.revocation.expected-entries:100000}") long expectedEntries,
+            @Value("${jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+            MeterRegistry meterRegistry) {
+        this(accessTokenMillis, expectedEntries, falsePositiveRate, meterRegistry, System::nanoTime);
+    }
+
+    public TokenRevocationList(long accessTokenMillis, long expectedEntries, double falsePositiveRate,
+            MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.generationNanos = TimeUnit.MILLISECONDS.toNanos(accessTokenMillis);
+        this.nanoClock = nanoClock;
+        this.current = new Generation(new BloomFilter(expectedEntries, falsePositiveRate), nanoClock.getAsLong());
+        this.previous = Generation.EMPTY;
+
+        Gauge.builder("jwt.revocation.entries", this, list -> list.size())
+                .description("Revoked token ids and users still held in memory")
+                .register(meterRegistry);
+    }
+
+    public void revokeToken(String tokenId) {
+        if (tokenId != null) {
+            Generation generation = rotateIfDue();
+            generation.tokenIds.add(tokenId);
+            generation.bloom.add(tokenId);
+        }
+    }
+
+    public void revokeUser(Integer userId, int firstValidVersion) {
+        rotateIfDue().minimumVersions.merge(userId, firstValidVersion, Math::max);
+    }
+
+    public boolean isRevoked(JwtService.VerifiedToken token) {
+        Generation newer = rotateIfDue();
+        Generation older = previous;
+
+        return newer.revokes(token) || older.revokes(token);
+    }
+
+    public int size() {
+        Generation newer = current;
+        Generation older = previous;
+        return newer.tokenIds.size() + newer.minimumVersions.size()
+                + older.tokenIds.size() + older.minimumVersions.size();
+    }
+
+    private Generation rotateIfDue() {
+        Generation generation = current;
+        if (nanoClock.getAsLong() - generation.startedAt < generationNanos) {
+            return generation;
+        }
+
+        synchronized (this) {
+            long now = nanoClock.getAsLong();
+            if (now - current.startedAt >= generationNanos) {
+                //A generation idle for two lifetimes holds nothing that can still match
+                previous = now - current.startedAt >= 2 * generationNanos ? Generation.EMPTY : current;
+                current = new Generation(new BloomFilter(expectedEntries, falsePositiveRate), now);
+            }
+            return current;
+        }
+    }
+
+    private static final class Generation {
+
+        static final Generation EMPTY = new Generation(new BloomFilter(1, 0.5), 0);
+
+        final BloomFilter bloom;
+        final Set<String> tokenIds = ConcurrentHashMap.newKeySet();
+        final Map<Integer, Integer> minimumVersions = new ConcurrentHashMap<>();
+        final long startedAt;
+
+        Generation(BloomFilter bloom, long startedAt) {
+            this.bloom = bloom;
+            this.startedAt = startedAt;
+        }
+
+        boolean revokes(JwtService.VerifiedToken token) {
+            if (token.userId() != null && token.tokenVersion() != null) {
+                Integer minimum = minimumVersions.get(token.userId());
+                if (minimum != null && token.tokenVersion() < minimum) {
+                    return true;
+                }
+            }
+
+            return token.tokenId() != null
+                    && bloom.mightContain(token.tokenId())
+                    && tokenIds.contains(token.tokenId());
+        }
+    }
+
+}
@@ -1,6 +1,5 @@
 package com.example.book.common.security;
 
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -18,16 +17,12 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         }
 
         @Override
-        public UserDetails loadUserByUsername(String email)
+        public AuthenticatedUser loadUserByUsername(String email)
                         throws UsernameNotFoundException {
 
                 User user = userRepository.findByEmail(email)
                                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
 
-                return org.springframework.security.core.userdetails.User.builder()
-                                .username(user.getEmail())
-                                .password(user.getPassword())
-                                .roles(user.getRole().name())
-                                .build();
+                return AuthenticatedUser.from(user);
         }
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.example.book.common.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+//Remembers tokens that already passed signature verification until they expire, so hot tokens skip the HMAC
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtService jwtService;
+    private final boolean enabled;
+    private final Cache<Long, Entry> verified;
+    private final Timer verifyTimer;
+
+    public VerifiedTokenCache(JwtService jwtService,
+            @Value("${jwt.verified-cache.enabled:true}") boolean enabled,
+            @Value("${jwt.verified-cache.max-size:50000}") long maxSize,
+            MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.enabled = enabled;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        this.verifyTimer = Timer.builder("jwt.verify")
+                .description("Time spent verifying a token signature on a cache miss")
+                .register(meterRegistry);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwt.verified-tokens");
+    }
+
+    public JwtService.VerifiedToken verify(String token) {
+        if (!enabled) {
+            return timedVerify(token);
+        }
+
+        long key = hash(token);
+        Entry cached = verified.getIfPresent(key);
+
+        //A hash collision is just a miss, the raw token must match too
+        if (cached != null && cached.token().equals(token)) {
+            return cached.claims();
+        }
+
+        JwtService.VerifiedToken claims = timedVerify(token);
+        if (claims.expiresAt() != null) {
+            verified.put(key, new Entry(token, claims));
+        }
+
+        return claims;
+    }
+
+    public void invalidateAll() {
+        verified.invalidateAll();
+    }
+
+    private JwtService.VerifiedToken timedVerify(String token) {
+        long start = System.nanoTime();
+        try {
+            return jwtService.verify(token);
+        } finally {
+            verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    //64 bit FNV-1a, far cheaper than the HMAC and wide enough to make collisions rare
+    static long hash(String token) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < token.length(); i++) {
+            hash ^= token.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private record Entry(String token, JwtService.VerifiedToken claims) {
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<Long, Entry> {
+
+        @Override
+        public long expireAfterCreate(Long key, Entry entry, long currentTime) {
+            return Math.max(Duration.between(Instant.now(), entry.claims().expiresAt()).toNanos(), 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(Long key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+}
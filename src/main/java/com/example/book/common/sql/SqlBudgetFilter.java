@@ -0,0 +1,98 @@
+package com.example.book.common.sql;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+//Tracks the SQL each request runs, warns when it goes over the statement budget and, when response headers are
+//on, reports the totals in X-Sql-* headers. The body is buffered for that so headers can follow the handler,
+//except on unbuffered paths such as the streaming export, which only get the budget check
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String ROWS_HEADER = "X-Sql-Rows";
+    public static final String TIME_HEADER = "X-Sql-Time-Ms";
+
+    private final boolean enabled;
+    private final int statementBudget;
+    private final boolean responseHeaders;
+    private final List<String> unbufferedPaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public SqlBudgetFilter(
+            @Value("${sql.tracking.enabled:true}") boolean enabled,
+            @Value("${sql.tracking.statement-budget:20}") int statementBudget,
+            @Value("${sql.tracking.response-headers:false}") boolean responseHeaders,
+            @Value("${sql.tracking.unbuffered-paths:/appointments/business/*/export}") List<String> unbufferedPaths) {
+        this.enabled = enabled;
+        this.statementBudget = statementBudget;
+        this.responseHeaders = responseHeaders;
+        this.unbufferedPaths = unbufferedPaths;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain)
+            throws ServletException, IOException {
+
+        SqlRequestStats stats = SqlRequestStats.start();
+        ContentCachingResponseWrapper buffered = responseHeaders && !isUnbuffered(request)
+                ? new ContentCachingResponseWrapper(response)
+                : null;
+
+        try {
+            filterChain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            SqlRequestStats.stop();
+
+            if (stats.getStatements() > statementBudget) {
+                log.warn("SQL budget exceeded: {} {} ran {} statements (budget {}), {} rows, {} ms, {} slow",
+                        request.getMethod(), route(request), stats.getStatements(), statementBudget,
+                        stats.getRows(), stats.getJdbcMillis(), stats.getSlowStatements());
+            }
+
+            if (buffered != null) {
+                buffered.setHeader(STATEMENTS_HEADER, String.valueOf(stats.getStatements()));
+                buffered.setHeader(ROWS_HEADER, String.valueOf(stats.getRows()));
+                buffered.setHeader(TIME_HEADER, String.valueOf(stats.getJdbcMillis()));
+                buffered.copyBodyToResponse();
+            }
+        }
+    }
+
+    private boolean isUnbuffered(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return unbufferedPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    //Mapped pattern such as /business/{businessId}/availability, so the warnings group by endpoint
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+
+}
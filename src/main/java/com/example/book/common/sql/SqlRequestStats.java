@@ -0,0 +1,49 @@
+package com.example.book.common.sql;
+
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+
+//JDBC work done while serving one HTTP request. SqlBudgetFilter opens it on the request thread and
+//SqlTrackingListener fills it, statements running on other threads are not counted
+@Getter
+public class SqlRequestStats {
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private long jdbcNanos;
+    private int slowStatements;
+
+    public static SqlRequestStats start() {
+        SqlRequestStats stats = new SqlRequestStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static SqlRequestStats current() {
+        return CURRENT.get();
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    public long getJdbcMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(jdbcNanos);
+    }
+
+    void statementExecuted(long nanos, boolean slow) {
+        statements++;
+        jdbcNanos += nanos;
+        if (slow) {
+            slowStatements++;
+        }
+    }
+
+    void rowFetched() {
+        rows++;
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.example.book.common.sql;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+//Wraps the application DataSource so every statement and fetched row goes through SqlTrackingListener
+@Component
+public class SqlTrackingDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final boolean enabled;
+    private final Duration slowThreshold;
+
+    public SqlTrackingDataSourcePostProcessor(
+            @Value("${sql.tracking.enabled:true}") boolean enabled,
+            @Value("${sql.tracking.slow-query-ms:200}") long slowQueryMs) {
+        this.enabled = enabled;
+        this.slowThreshold = Duration.ofMillis(slowQueryMs);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled || !(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+            return bean;
+        }
+
+        SqlTrackingListener listener = new SqlTrackingListener(slowThreshold);
+        return ProxyDataSourceBuilder.create(beanName, dataSource)
+                .listener(listener)
+                .methodListener(listener)
+                .proxyResultSet()
+                .build();
+    }
+
+}
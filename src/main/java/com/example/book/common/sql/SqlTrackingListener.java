@@ -0,0 +1,93 @@
+package com.example.book.common.sql;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import lombok.extern.slf4j.Slf4j;
+
+//Counts statements, JDBC time and fetched rows into the current SqlRequestStats and logs statements slower than
+//the threshold. Slow statements are logged with parameter types only, bound values may hold personal data
+@Slf4j
+public class SqlTrackingListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final String START = SqlTrackingListener.class.getName() + ".start";
+
+    private final long slowNanos;
+
+    public SqlTrackingListener(Duration slowThreshold) {
+        this.slowNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queries) {
+        execInfo.addCustomValue(START, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queries) {
+        Long start = execInfo.getCustomValue(START, Long.class);
+        long nanos = start == null
+                ? TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime())
+                : System.nanoTime() - start;
+        boolean slow = nanos >= slowNanos;
+
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null) {
+            stats.statementExecuted(nanos, slow);
+        }
+
+        if (slow) {
+            log.warn("Slow SQL ({} ms): {}", TimeUnit.NANOSECONDS.toMillis(nanos), queries.stream()
+                    .map(query -> query.getQuery() + " " + shape(query))
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && executionContext.getMethod().getName().equals("next")
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            SqlRequestStats stats = SqlRequestStats.current();
+            if (stats != null) {
+                stats.rowFetched();
+            }
+        }
+    }
+
+    //Bound parameter types of the first execution, e.g. (Integer, LocalDateTime, null) x 20 for a batch
+    static String shape(QueryInfo query) {
+        List<List<ParameterSetOperation>> executions = query.getParametersList();
+        if (executions.isEmpty()) {
+            return "()";
+        }
+
+        String shape = executions.get(0).stream()
+                .map(SqlTrackingListener::parameterType)
+                .collect(Collectors.joining(", ", "(", ")"));
+        return executions.size() > 1 ? shape + " x " + executions.size() : shape;
+    }
+
+    private static String parameterType(ParameterSetOperation operation) {
+        Object[] args = operation.getArgs();
+        if (ParameterSetOperation.isSetNullParameterOperation(operation) || args.length < 2 || args[1] == null) {
+            return "null";
+        }
+        return args[1].getClass().getSimpleName();
+    }
+
+}
@@ -1,9 +1,13 @@
 package com.example.book.servicecatalog.repository;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.example.book.servicecatalog.dto.ServiceCatalogReturnDTO;
 import com.example.book.servicecatalog.model.ServiceCatalog;
 
 public interface ServiceCatalogRepository extends JpaRepository<ServiceCatalog, Integer> {
@@ -12,4 +16,23 @@ public interface ServiceCatalogRepository extends JpaRepository<ServiceCatalog,
 
     boolean existsByNameAndBusinessId(String name, Integer businessId);
 
+    @Query("""
+            select new com.example.book.servicecatalog.dto.ServiceCatalogReturnDTO(
+                    s.id, s.name, s.duration, s.price, s.business.id, s.activate)
+            from ServiceCatalog s
+            where s.id = :id
+            """)
+    Optional<ServiceCatalogReturnDTO> findReturnById(@Param("id") Integer id);
+
+    @Query("""
+            select new com.example.book.servicecatalog.dto.ServiceCatalogReturnDTO(
+                    s.id, s.name, s.duration, s.price, b.id, s.activate)
+            from ServiceCatalog s
+            join s.business b
+            where b.name = :businessName
+              and s.activate = true
+            order by s.id
+            """)
+    List<ServiceCatalogReturnDTO> findActiveReturnByBusinessName(@Param("businessName") String businessName);
+
 }
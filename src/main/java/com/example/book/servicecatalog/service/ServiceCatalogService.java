@@ -55,19 +55,20 @@ public class ServiceCatalogService {
     }
 
     public List<ServiceCatalogReturnDTO> findByBusiness(String name) {
-        Business business = businessRepository.findByName(name)
-                .orElseThrow(() -> new ResourceNotFoundException("Business não encontrado."));
+        List<ServiceCatalogReturnDTO> services = serviceCatalogRepository.findActiveReturnByBusinessName(name);
+
+        //Only an empty result needs the extra lookup to tell "no services" from "no business"
+        if (services.isEmpty() && !businessRepository.existsByName(name)) {
+            throw new ResourceNotFoundException("Business não encontrado.");
+        }
 
-        return serviceCatalogRepository.findByBusinessId(business.getId()).stream().map(s -> toDto(s))
-                .filter(f -> f.isActivate()).toList();
+        return services;
 
     }
 
     public ServiceCatalogReturnDTO findById(Integer id) {
-        ServiceCatalog serviceCatalog = serviceCatalogRepository.findById(id)
+        return serviceCatalogRepository.findReturnById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Serviço não encontrado."));
-
-        return toDto(serviceCatalog);
     }
 
     public ServiceCatalogReturnDTO updateServiceCatalog(Integer serviceId, ServiceCatalogUpdateDTO dto) {
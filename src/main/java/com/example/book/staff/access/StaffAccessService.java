@@ -3,9 +3,9 @@ package com.example.book.staff.access;
 import org.springframework.stereotype.Service;
 
 import com.example.book.common.exceptions.BusinessException;
+import com.example.book.common.security.AuthenticatedUser;
 import com.example.book.common.security.LoggedUserService;
 import com.example.book.staff.repository.StaffRepository;
-import com.example.book.user.model.User;
 
 import lombok.RequiredArgsConstructor;
 
@@ -17,7 +17,7 @@ public class StaffAccessService {
     private final LoggedUserService loggedUserService;
 
     public void validateStaffAccessToBusiness(Integer businessId) {
-        User user = loggedUserService.get();
+        AuthenticatedUser user = loggedUserService.current();
 
         if (!staffRepository.existsByUserIdAndBusinessId(user.getId(), businessId)) {
             throw new BusinessException("Acesso negado ao business.");
@@ -4,7 +4,10 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.example.book.staff.dto.StaffReturnDTO;
 import com.example.book.staff.model.Staff;
 
 public interface StaffRepository extends JpaRepository<Staff, Integer> {
@@ -21,4 +24,29 @@ public interface StaffRepository extends JpaRepository<Staff, Integer> {
 
     boolean existsByUserIdAndBusinessId(Integer userId, Integer businessId);
 
+    @Query("""
+            select new com.example.book.staff.dto.StaffReturnDTO(s.id, s.publicName, s.active, s.business.id)
+            from Staff s
+            where s.id = :staffId
+            """)
+    Optional<StaffReturnDTO> findReturnById(@Param("staffId") Integer staffId);
+
+    @Query("""
+            select new com.example.book.staff.dto.StaffReturnDTO(s.id, s.publicName, s.active, s.business.id)
+            from Staff s
+            where s.id = :staffId
+              and s.business.id = :businessId
+            """)
+    Optional<StaffReturnDTO> findReturnByIdAndBusinessId(@Param("staffId") Integer staffId,
+            @Param("businessId") Integer businessId);
+
+    @Query("""
+            select new com.example.book.staff.dto.StaffReturnDTO(s.id, s.publicName, s.active, s.business.id)
+            from Staff s
+            where s.business.id = :businessId
+              and s.active = true
+            order by s.id
+            """)
+    List<StaffReturnDTO> findActiveReturnByBusinessId(@Param("businessId") Integer businessId);
+
 }
@@ -1,9 +1,12 @@
 package com.example.book.staff.service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.stereotype.Service;
 
+import com.example.book.appointment.enums.AppointmentStatus;
+import com.example.book.appointment.repository.AppointmentRepository;
 import com.example.book.business.model.Business;
 import com.example.book.business.repository.BusinessRepository;
 import com.example.book.common.exceptions.BusinessException;
@@ -25,17 +28,16 @@ public class StaffService {
     private final StaffRepository staffRepository;
     private final BusinessRepository businessRepository;
     private final UserRepository userRepository;
+    private final AppointmentRepository appointmentRepository;
 
     private StaffReturnDTO toDto(Staff staff) {
         return new StaffReturnDTO(staff.getId(), staff.getPublicName(), staff.isActive(), staff.getBusiness().getId());
     }
 
-    // depois da camada appointment, alterar e utilizar metodo do
-    // AppointmentRepository. if
-    // (appointmentRepository.existsFutureByStaffId(staff.getId())) { ... }
     private void staffHasFutureAppointments(Staff staff) {
 
-        if (staff.getAppointments().size() > 0) {
+        if (appointmentRepository.existsByStaffIdAndStatusAndStartTimeAfter(staff.getId(),
+                AppointmentStatus.SCHEDULED, LocalDateTime.now())) {
             throw new BusinessException("Staff possui agendamentos futuros.");
         }
     }
@@ -71,18 +73,16 @@ public class StaffService {
     }
 
     public StaffReturnDTO findById(Integer id) {
-        Staff staff = staffRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("ID inválido."));
-        return toDto(staff);
+        return staffRepository.findReturnById(id).orElseThrow(() -> new ResourceNotFoundException("ID inválido."));
     }
 
     public StaffReturnDTO findByIdAndBusinessId(Integer staffId, Integer businessId) {
-        Staff staff = staffRepository.findByIdAndBusinessId(staffId, businessId)
+        return staffRepository.findReturnByIdAndBusinessId(staffId, businessId)
                 .orElseThrow(() -> new ResourceNotFoundException("ID inválido."));
-        return toDto(staff);
     }
 
     public List<StaffReturnDTO> listActiveStaffByBusiness(Integer id) {
-        return staffRepository.findByBusinessIdAndActiveTrue(id).stream().map(s -> toDto(s)).toList();
+        return staffRepository.findActiveReturnByBusinessId(id);
     }
 
     public boolean belongsToBusiness(Integer staffId, Integer businessId) {
@@ -57,7 +57,7 @@ public class UserController {
     @GetMapping("/me")
     @ResponseStatus(HttpStatus.OK)
     public UserReturnDTO getMe() {
-        return userService.getUserByEmail(loggedUserService.get().getEmail());
+        return userService.getUserByEmail(loggedUserService.current().getEmail());
     }
 
     @GetMapping("/role")
@@ -76,7 +76,7 @@ public class UserController {
 
     @PutMapping("/me/password")
     public UserReturnDTO changePassword(@RequestBody ChangePasswordDTO passwords) {
-        return userService.changePassword(loggedUserService.get().getId(), passwords);
+        return userService.changePassword(loggedUserService.current().getId(), passwords);
     }
 
     @PutMapping("/change-role/{id}")
@@ -96,13 +96,13 @@ public class UserController {
     @PutMapping("/me/desactivate")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void desactivateMe() {
-        userService.desactivateUser(loggedUserService.get().getId());
+        userService.desactivateUser(loggedUserService.current().getId());
     }
 
     @PutMapping("/me/activate")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void activateMe() {
-        userService.activateUser(loggedUserService.get().getId());
+        userService.activateUser(loggedUserService.current().getId());
     }
 
     @PutMapping("/{id}/desactivate")
@@ -4,6 +4,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.example.book.appointment.model.Appointment;
+import org.hibernate.annotations.ColumnDefault;
+
 import com.example.book.user.enums.UserRoleEnum;
 
 import jakarta.persistence.Column;
@@ -48,10 +50,18 @@ public class User {
 
     private boolean active = true;
 
+    //Signed into every token, bumping it revokes the tokens already issued
+    @ColumnDefault("0")
+    private int tokenVersion;
+
     public User(String name, String email, String password) {
         this.name = name;
         this.email = email;
         this.password = password;
     }
 
+    public void revokeTokens() {
+        tokenVersion++;
+    }
+
 }
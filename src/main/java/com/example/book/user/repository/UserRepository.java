@@ -4,6 +4,10 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.book.user.enums.UserRoleEnum;
 import com.example.book.user.model.User;
@@ -16,4 +20,11 @@ public interface UserRepository extends JpaRepository<User, Integer> {
 
     List<User> findByRole(UserRoleEnum role);
 
+    //Only replaces the hash that was checked, a password changed in the meantime wins
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newHash where u.id = :id and u.password = :oldHash")
+    int updatePasswordHash(@Param("id") Integer id, @Param("oldHash") String oldHash,
+            @Param("newHash") String newHash);
+
 }
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Service;
 
 import com.example.book.common.exceptions.BusinessException;
 import com.example.book.common.exceptions.ResourceNotFoundException;
+import com.example.book.common.security.TokenRevocationList;
 import com.example.book.user.dto.ChangePasswordDTO;
 import com.example.book.user.dto.UserInputDTO;
 import com.example.book.user.dto.UserReturnDTO;
@@ -22,6 +23,7 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder bcrypt;
+    private final TokenRevocationList tokenRevocationList;
 
     private UserReturnDTO toDTO(User user) {
         return new UserReturnDTO(
@@ -78,7 +80,9 @@ public class UserService {
         }
 
         user.setPassword(bcrypt.encode(passwords.getNewPassword()));
+        user.revokeTokens();
         userRepository.save(user);
+        tokenRevocationList.revokeUser(user.getId(), user.getTokenVersion());
         return toDTO(user);
     }
 
@@ -92,7 +96,9 @@ public class UserService {
         }
 
         user.setRole(role);
+        user.revokeTokens();
         userRepository.save(user);
+        tokenRevocationList.revokeUser(user.getId(), user.getTokenVersion());
         return toDTO(user);
     }
 
@@ -105,7 +111,9 @@ public class UserService {
         }
 
         user.setActive(false);
+        user.revokeTokens();
         userRepository.save(user);
+        tokenRevocationList.revokeUser(user.getId(), user.getTokenVersion());
     }
 
     public void activateUser(Integer userId) {
@@ -0,0 +1,12 @@
+DO $$
+BEGIN
+    CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'appointment_staff_no_overlap') THEN
+        ALTER TABLE appointment
+            ADD CONSTRAINT appointment_staff_no_overlap
+            EXCLUDE USING gist (staff_id WITH =, tsrange(start_time, end_time) WITH &&)
+            WHERE (status = 'SCHEDULED');
+    END IF;
+END
+$$;
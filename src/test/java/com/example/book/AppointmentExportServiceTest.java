@@ -0,0 +1,121 @@
+package com.example.book;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.book.appointment.dto.AppointmentExportRowDTO;
+import com.example.book.appointment.enums.AppointmentStatus;
+import com.example.book.appointment.enums.ExportFormat;
+import com.example.book.appointment.repository.AppointmentRepository;
+import com.example.book.appointment.service.AppointmentExportService;
+import com.example.book.appointment.service.AppointmentService;
+import com.example.book.common.exceptions.BusinessException;
+
+import tools.jackson.databind.json.JsonMapper;
+
+@ExtendWith(MockitoExtension.class)
+public class AppointmentExportServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 3, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2026, 4, 1, 0, 0);
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private AppointmentService appointmentService;
+
+    private AppointmentExportService appointmentExportService;
+
+    private AppointmentExportRowDTO row;
+
+    @BeforeEach
+    void setUp() {
+        appointmentExportService = new AppointmentExportService(appointmentRepository, appointmentService,
+                JsonMapper.builder().build());
+
+        row = new AppointmentExportRowDTO(7, LocalDateTime.of(2026, 3, 2, 10, 0), LocalDateTime.of(2026, 3, 2, 10, 30),
+                AppointmentStatus.COMPLETED, 4, "Thiago Boss", 100, "Corte, barba", new BigDecimal("60.00"), 2,
+                "Matheus \"Math\" Cliente");
+    }
+
+    @Test
+    public void exportByBusinessTest_WritesCsvWithHeaderAndEscapedFields() throws Exception {
+        when(appointmentRepository.streamExportRows(1, FROM, TO)).thenReturn(Stream.of(row));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        appointmentExportService.exportByBusiness(1, FROM, TO, ExportFormat.CSV, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("appointmentId,startTime"));
+        assertEquals("7,2026-03-02T10:00,2026-03-02T10:30,COMPLETED,4,Thiago Boss,100,\"Corte, barba\",60.00,2,"
+                + "\"Matheus \"\"Math\"\" Cliente\"", lines[1]);
+    }
+
+    @Test
+    public void exportByBusinessTest_WritesOneJsonObjectPerLine() throws Exception {
+        when(appointmentRepository.streamExportRows(1, FROM, TO)).thenReturn(Stream.of(row, row));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        appointmentExportService.exportByBusiness(1, FROM, TO, ExportFormat.NDJSON, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].endsWith("}"));
+        assertTrue(lines[0].contains("\"appointmentId\":7"));
+        assertTrue(lines[0].contains("\"serviceName\":\"Corte, barba\""));
+    }
+
+    @Test
+    public void exportByBusinessTest_ClosesCursor() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(appointmentRepository.streamExportRows(1, FROM, TO))
+                .thenReturn(Stream.of(row).onClose(() -> closed.set(true)));
+
+        appointmentExportService.exportByBusiness(1, FROM, TO, ExportFormat.CSV, new ByteArrayOutputStream());
+
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void exportByBusinessTest_WhenAccessDenied() {
+        doThrow(new BusinessException("Acesso negado.")).when(appointmentService).checkBusinessAccess(1);
+
+        assertThrows(BusinessException.class, () -> appointmentExportService.exportByBusiness(1, FROM, TO,
+                ExportFormat.CSV, new ByteArrayOutputStream()));
+        verify(appointmentRepository, never()).streamExportRows(any(), any(), any());
+    }
+
+    @Test
+    public void exportByBusinessTest_WhenRangeInvalid() {
+        assertThrows(BusinessException.class, () -> appointmentExportService.exportByBusiness(1, TO, FROM,
+                ExportFormat.NDJSON, new ByteArrayOutputStream()));
+    }
+
+    @Test
+    public void exportFormatTest_WhenUnknown() {
+        assertEquals(ExportFormat.CSV, ExportFormat.from("CSV"));
+        assertThrows(BusinessException.class, () -> ExportFormat.from("xlsx"));
+    }
+
+}
@@ -1,33 +1,52 @@
 package com.example.book;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.book.appointment.dto.AppointmentFilterDTO;
 import com.example.book.appointment.dto.AppointmentInputDTO;
+import com.example.book.appointment.dto.AppointmentPageDTO;
 import com.example.book.appointment.dto.AppointmentReturnDTO;
 import com.example.book.appointment.enums.AppointmentStatus;
+import com.example.book.appointment.index.StaffDayBitmap;
+import com.example.book.appointment.index.StaffScheduleIndex;
+import com.example.book.appointment.lock.StaffBookingLocks;
 import com.example.book.appointment.model.Appointment;
+import com.example.book.appointment.policy.AppointmentContext;
 import com.example.book.appointment.policy.AppointmentValidator;
 import com.example.book.appointment.repository.AppointmentRepository;
 import com.example.book.appointment.service.AppointmentService;
@@ -35,8 +54,10 @@ import com.example.book.business.enums.BusinessType;
 import com.example.book.business.model.Business;
 import com.example.book.business.model.WorkingHours;
 import com.example.book.business.repository.BusinessRepository;
-import com.example.book.business.repository.WorkingHoursRepository;
+import com.example.book.business.schedule.CompiledSchedule;
+import com.example.book.business.schedule.WorkingHoursCache;
 import com.example.book.common.exceptions.BusinessException;
+import com.example.book.common.security.AuthenticatedUser;
 import com.example.book.common.security.LoggedUserService;
 import com.example.book.servicecatalog.model.ServiceCatalog;
 import com.example.book.servicecatalog.repository.ServiceCatalogRepository;
@@ -59,9 +80,15 @@ public class AppointmentServiceTest {
     @Mock
     private ServiceCatalogRepository serviceCatalogRepository;
     @Mock
-    private WorkingHoursRepository workingHoursRepository;
+    private WorkingHoursCache workingHoursCache;
     @Mock
     private LoggedUserService loggedUserService;
+    @Mock
+    private StaffBookingLocks staffBookingLocks;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private StaffScheduleIndex staffScheduleIndex;
 
     @InjectMocks
     private AppointmentService appointmentService;
@@ -76,8 +103,16 @@ public class AppointmentServiceTest {
     private AppointmentInputDTO appointmentInputDTO;
     private User userWrong;
 
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 1, 1, 0, 0);
+
     @BeforeEach
     void setUp() {
+        lenient().when(staffBookingLocks.withLock(any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(staffScheduleIndex.getSlotMinutes()).thenReturn(1);
+
         userWrong = new User("lala", "lala", "lala");
 
         commonBusiness = new Business("Barbearia Profissional", BusinessType.BARBER);
@@ -117,18 +152,97 @@ public class AppointmentServiceTest {
         when(businessRepository.findById(commonBusiness.getId())).thenReturn(Optional.of(commonBusiness));
         when(staffRepository.findById(commonStaff.getId())).thenReturn(Optional.of(commonStaff));
         when(serviceCatalogRepository.findById(commonService.getId())).thenReturn(Optional.of(commonService));
-        when(businessRepository.findById(commonBusiness.getId())).thenReturn(Optional.of(commonBusiness));
-        when(workingHoursRepository.findByBusinessIdAndDayOfWeek(commonBusiness.getId(), any()))
-                .thenReturn(Optional.of(commonWorkingHours));
-        when(appointmentRepository.findByStaffIdAndStaffActiveTrue(commonStaff.getId())).thenReturn(List.of());
+        when(loggedUserService.reference()).thenReturn(commonClient);
+        when(workingHoursCache.schedule(commonBusiness.getId()))
+                .thenReturn(CompiledSchedule.compile(List.of(commonWorkingHours), List.of()));
+        when(appointmentRepository.findBusyIntervalsByStaff(
+                eq(commonStaff.getId()), eq(AppointmentStatus.SCHEDULED), any(), any())).thenReturn(List.of());
 
         AppointmentReturnDTO appointmentReturn = appointmentService.createAppointment(appointmentInputDTO);
 
         assertEquals(AppointmentStatus.SCHEDULED, appointmentReturn.getStatus());
-        verify(appointmentRepository).save(any());
+        verify(appointmentRepository).saveAndFlush(any());
+        verify(appointmentValidator).validateCreation(any());
+    }
+
+    @Test
+    public void createAppointmentTest_OnlyQueriesOverlappingScheduledAppointments() {
+        when(businessRepository.findById(commonBusiness.getId())).thenReturn(Optional.of(commonBusiness));
+        when(staffRepository.findById(commonStaff.getId())).thenReturn(Optional.of(commonStaff));
+        when(serviceCatalogRepository.findById(commonService.getId())).thenReturn(Optional.of(commonService));
+        when(loggedUserService.reference()).thenReturn(commonClient);
+        when(workingHoursCache.schedule(commonBusiness.getId()))
+                .thenReturn(CompiledSchedule.compile(List.of(commonWorkingHours), List.of()));
+
+        LocalDateTime start = appointmentInputDTO.getStartTime();
+        LocalDateTime end = start.plusMinutes(commonService.getDuration());
+
+        appointmentService.createAppointment(appointmentInputDTO);
+
+        verify(appointmentRepository).findBusyIntervalsByStaff(
+                commonStaff.getId(), AppointmentStatus.SCHEDULED, start, end);
+        verify(appointmentRepository).saveAndFlush(any());
+        verify(staffScheduleIndex).add(commonStaff.getId(), null, start, end);
+    }
+
+    @Test
+    public void createAppointmentTest_UsesScheduleIndexWhenReady() {
+        when(businessRepository.findById(commonBusiness.getId())).thenReturn(Optional.of(commonBusiness));
+        when(staffRepository.findById(commonStaff.getId())).thenReturn(Optional.of(commonStaff));
+        when(serviceCatalogRepository.findById(commonService.getId())).thenReturn(Optional.of(commonService));
+        when(loggedUserService.reference()).thenReturn(commonClient);
+        when(workingHoursCache.schedule(commonBusiness.getId()))
+                .thenReturn(CompiledSchedule.compile(List.of(commonWorkingHours), List.of()));
+        when(staffScheduleIndex.bookedSlots(commonStaff.getId(), appointmentInputDTO.getStartTime().toLocalDate()))
+                .thenReturn(Optional.of(new StaffDayBitmap(1)));
+
+        appointmentService.createAppointment(appointmentInputDTO);
+
+        verify(appointmentRepository, never()).findBusyIntervalsByStaff(any(), any(), any(), any());
         verify(appointmentValidator).validateCreation(any());
     }
 
+    @Test
+    public void createAppointmentTest_WhenIndexConflictIsStale() {
+        when(businessRepository.findById(commonBusiness.getId())).thenReturn(Optional.of(commonBusiness));
+        when(staffRepository.findById(commonStaff.getId())).thenReturn(Optional.of(commonStaff));
+        when(serviceCatalogRepository.findById(commonService.getId())).thenReturn(Optional.of(commonService));
+        when(loggedUserService.reference()).thenReturn(commonClient);
+        when(workingHoursCache.schedule(commonBusiness.getId()))
+                .thenReturn(CompiledSchedule.compile(List.of(commonWorkingHours), List.of()));
+        //Still holds an appointment canceled on another instance
+        when(staffScheduleIndex.bookedSlots(commonStaff.getId(), appointmentInputDTO.getStartTime().toLocalDate()))
+                .thenReturn(Optional.of(StaffDayBitmap.covering(1, 10 * 60, 11 * 60)));
+        when(appointmentRepository.findBusyIntervalsByStaff(eq(commonStaff.getId()), eq(AppointmentStatus.SCHEDULED),
+                any(), any())).thenReturn(List.of());
+
+        appointmentService.createAppointment(appointmentInputDTO);
+
+        ArgumentCaptor<AppointmentContext> context = ArgumentCaptor.forClass(AppointmentContext.class);
+        verify(appointmentValidator).validateCreation(context.capture());
+        assertFalse(context.getValue().hasConflict());
+        verify(appointmentRepository).saveAndFlush(any());
+    }
+
+    @Test
+    public void createAppointmentTest_WhenExclusionConstraintRejectsOverlap() {
+        when(businessRepository.findById(commonBusiness.getId())).thenReturn(Optional.of(commonBusiness));
+        when(staffRepository.findById(commonStaff.getId())).thenReturn(Optional.of(commonStaff));
+        when(serviceCatalogRepository.findById(commonService.getId())).thenReturn(Optional.of(commonService));
+        when(loggedUserService.reference()).thenReturn(commonClient);
+        when(workingHoursCache.schedule(commonBusiness.getId()))
+                .thenReturn(CompiledSchedule.compile(List.of(commonWorkingHours), List.of()));
+        when(appointmentRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new RuntimeException("conflicting key value violates exclusion constraint \""
+                        + Appointment.NO_OVERLAP_CONSTRAINT + "\"")));
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> appointmentService.createAppointment(appointmentInputDTO));
+
+        assertEquals("Horário indisponível.", ex.getMessage());
+    }
+
     @Test
     public void createAppointmentTest_BusinessNotFound() {
         when(businessRepository.findById(appointmentInputDTO.getBusinessId())).thenReturn(Optional.empty());
@@ -136,7 +250,7 @@ public class AppointmentServiceTest {
         assertThrows(BusinessException.class,
                 () -> appointmentService.createAppointment(appointmentInputDTO));
 
-        verify(appointmentRepository, never()).save(any());
+        verify(appointmentRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -149,6 +263,17 @@ public class AppointmentServiceTest {
 
     }
 
+    @Test
+    public void createAppointmentTest_WhenStaffIdMissing() {
+        appointmentInputDTO.setStaffId(null);
+
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> appointmentService.createAppointment(appointmentInputDTO));
+
+        assertEquals("Staff inválido.", exception.getMessage());
+        verify(staffBookingLocks, never()).withLock(any(), any());
+    }
+
     @Test
     public void createAppointmentTest_ServiceNotFound() {
         when(businessRepository.findById(anyInt())).thenReturn(Optional.of(commonBusiness));
@@ -165,8 +290,8 @@ public class AppointmentServiceTest {
         when(businessRepository.findById(anyInt())).thenReturn(Optional.of(commonBusiness));
         when(staffRepository.findById(anyInt())).thenReturn(Optional.of(commonStaff));
         when(serviceCatalogRepository.findById(anyInt())).thenReturn(Optional.of(commonService));
-        when(loggedUserService.get()).thenReturn(commonClient);
-        when(workingHoursRepository.findByBusinessIdAndDayOfWeek(anyInt(), any())).thenReturn(Optional.empty());
+        when(loggedUserService.reference()).thenReturn(commonClient);
+        when(workingHoursCache.schedule(anyInt())).thenReturn(CompiledSchedule.CLOSED);
 
         assertThrows(BusinessException.class,
                 () -> appointmentService.createAppointment(appointmentInputDTO));
@@ -177,9 +302,9 @@ public class AppointmentServiceTest {
         when(businessRepository.findById(anyInt())).thenReturn(Optional.of(commonBusiness));
         when(staffRepository.findById(anyInt())).thenReturn(Optional.of(commonStaff));
         when(serviceCatalogRepository.findById(anyInt())).thenReturn(Optional.of(commonService));
-        when(loggedUserService.get()).thenReturn(commonClient);
-        when(workingHoursRepository.findByBusinessIdAndDayOfWeek(anyInt(), any()))
-                .thenReturn(Optional.of(commonWorkingHours));
+        when(loggedUserService.reference()).thenReturn(commonClient);
+        when(workingHoursCache.schedule(anyInt()))
+                .thenReturn(CompiledSchedule.compile(List.of(commonWorkingHours), List.of()));
 
         doThrow(new BusinessException("Horário indisponível"))
                 .when(appointmentValidator).validateCreation(any());
@@ -187,15 +312,17 @@ public class AppointmentServiceTest {
         assertThrows(BusinessException.class,
                 () -> appointmentService.createAppointment(appointmentInputDTO));
 
-        verify(appointmentRepository, never()).save(any());
+        verify(appointmentRepository, never()).saveAndFlush(any());
     }
 
     @Test
     public void cancelAppointmentTest_Success() {
         when(appointmentRepository.findById(commonAppointment.getId())).thenReturn(Optional.of(commonAppointment));
-        when(loggedUserService.get()).thenReturn((commonAppointment.getStaff().getUser()));
+        when(loggedUserService.current()).thenReturn(staffPrincipal());
 
         appointmentService.cancelAppointment(commonAppointment.getId());
+
+        assertEquals(AppointmentStatus.CANCELED, commonAppointment.getStatus());
         verify(appointmentRepository).save(commonAppointment);
     }
 
@@ -210,7 +337,7 @@ public class AppointmentServiceTest {
     public void cancelAppointmentTest_WhenUserNotAuthorized() {
 
         when(appointmentRepository.findById(commonAppointment.getId())).thenReturn(Optional.of(commonAppointment));
-        when(loggedUserService.get()).thenReturn((userWrong));
+        when(loggedUserService.current()).thenReturn(AuthenticatedUser.from(userWrong));
 
         assertThrows(BusinessException.class, () -> appointmentService.cancelAppointment(commonAppointment.getId()));
     }
@@ -218,7 +345,7 @@ public class AppointmentServiceTest {
     @Test
     public void cancelAppointmentTest_WhenStaffNotAuthorized() {
         when(appointmentRepository.findById(commonAppointment.getId())).thenReturn(Optional.of(commonAppointment));
-        when(loggedUserService.get()).thenReturn((commonUserStaff));
+        when(loggedUserService.current()).thenReturn(AuthenticatedUser.from(commonUserStaff));
 
         assertThrows(BusinessException.class, () -> appointmentService.cancelAppointment(commonAppointment.getId()));
     }
@@ -226,7 +353,7 @@ public class AppointmentServiceTest {
     @Test
     public void cancelAppointmentTest_WhenAppointmentIsntScheduled() {
         when(appointmentRepository.findById(commonAppointment.getId())).thenReturn(Optional.of(commonAppointment));
-        when(loggedUserService.get()).thenReturn((commonAppointment.getStaff().getUser()));
+        when(loggedUserService.current()).thenReturn(staffPrincipal());
 
         commonAppointment.setStatus(AppointmentStatus.COMPLETED);
         assertThrows(BusinessException.class, () -> appointmentService.cancelAppointment(commonAppointment.getId()));
@@ -235,10 +362,12 @@ public class AppointmentServiceTest {
     @Test
     public void completeAppointmentTest_Success() {
         when(appointmentRepository.findById(commonAppointment.getId())).thenReturn(Optional.of(commonAppointment));
-        when(loggedUserService.get()).thenReturn((commonAppointment.getStaff().getUser()));
+        when(loggedUserService.current()).thenReturn(staffPrincipal());
 
         appointmentService.completeAppointment(commonAppointment.getId());
-        verify(appointmentRepository).save(any());
+
+        assertEquals(AppointmentStatus.COMPLETED, commonAppointment.getStatus());
+        verify(appointmentRepository).save(commonAppointment);
     }
 
     @Test
@@ -251,7 +380,7 @@ public class AppointmentServiceTest {
     @Test
     public void completeAppointmentTest_WhenNotAuthorized() {
         when(appointmentRepository.findById(commonAppointment.getId())).thenReturn(Optional.of(commonAppointment));
-        when(loggedUserService.get()).thenReturn((commonClient));
+        when(loggedUserService.current()).thenReturn(AuthenticatedUser.from(commonClient));
 
         assertThrows(BusinessException.class, () -> appointmentService.completeAppointment(commonAppointment.getId()));
     }
@@ -259,7 +388,7 @@ public class AppointmentServiceTest {
     @Test
     public void completeAPpointmentTest_WhenStaffNotAuthorized() {
         when(appointmentRepository.findById(commonAppointment.getId())).thenReturn(Optional.of(commonAppointment));
-        when(loggedUserService.get()).thenReturn((commonUserStaff));
+        when(loggedUserService.current()).thenReturn(AuthenticatedUser.from(commonUserStaff));
 
         assertThrows(BusinessException.class, () -> appointmentService.completeAppointment(commonAppointment.getId()));
     }
@@ -267,15 +396,17 @@ public class AppointmentServiceTest {
     @Test
     public void completeAppointmentTest_WhenAppointmentIsntScheduled() {
         when(appointmentRepository.findById(commonAppointment.getId())).thenReturn(Optional.of(commonAppointment));
-        when(loggedUserService.get()).thenReturn((commonAppointment.getStaff().getUser()));
+        when(loggedUserService.current()).thenReturn(staffPrincipal());
 
         commonAppointment.setStatus(AppointmentStatus.CANCELED);
+        assertThrows(BusinessException.class, () -> appointmentService.completeAppointment(commonAppointment.getId()));
     }
 
     @Test
     public void getAppointmentByIdTest_Success() {
-        when(appointmentRepository.findById(commonAppointment.getId())).thenReturn(Optional.of(commonAppointment));
-        when(loggedUserService.get()).thenReturn((commonClient));
+        when(appointmentRepository.findReturnById(commonAppointment.getId()))
+                .thenReturn(Optional.of(toReturn(commonAppointment)));
+        when(loggedUserService.current()).thenReturn(AuthenticatedUser.from(commonClient));
 
         AppointmentReturnDTO appointmentReturn = appointmentService.getAppointmentById(commonAppointment.getId());
 
@@ -285,79 +416,165 @@ public class AppointmentServiceTest {
 
     @Test
     public void getAppointmentByIdTest_WhenAppointmentNotFound() {
-        when(appointmentRepository.findById(commonAppointment.getId())).thenReturn(Optional.empty());
+        when(appointmentRepository.findReturnById(commonAppointment.getId())).thenReturn(Optional.empty());
 
         assertThrows(BusinessException.class, () -> appointmentService.getAppointmentById(commonAppointment.getId()));
     }
 
     @Test
     public void getAppointmentByIdTest_WhenNotAuthorized() {
-        when(appointmentRepository.findById(commonAppointment.getId())).thenReturn(Optional.of(commonAppointment));
-        when(loggedUserService.get()).thenReturn((userWrong));
+        when(appointmentRepository.findReturnById(commonAppointment.getId()))
+                .thenReturn(Optional.of(toReturn(commonAppointment)));
+        when(loggedUserService.current()).thenReturn(AuthenticatedUser.from(userWrong));
 
         assertThrows(BusinessException.class, () -> appointmentService.getAppointmentById(commonAppointment.getId()));
     }
 
     @Test
     public void listByBusinessTest_Success() {
-        when(loggedUserService.get()).thenReturn(commonUserStaff);
+        when(loggedUserService.current()).thenReturn(AuthenticatedUser.from(commonUserStaff));
         when(staffRepository.findById(commonUserStaff.getId())).thenReturn(Optional.of(commonStaff));
-        when(appointmentRepository.findByBusinessId(commonBusiness.getId())).thenReturn(List.of(commonAppointment));
+        when(appointmentRepository.findPageByBusiness(eq(commonBusiness.getId()), any(), any(), any(), any(), any(),
+                any())).thenReturn(List.of(toReturn(commonAppointment)));
 
-        List<AppointmentReturnDTO> appointmentsReturn = appointmentService.listByBusiness(commonBusiness.getId());
+        AppointmentPageDTO page = appointmentService.listByBusiness(commonBusiness.getId(), emptyFilter());
+        List<AppointmentReturnDTO> appointmentsReturn = page.getItems();
         assertEquals(1, appointmentsReturn.size());
+        assertNull(page.getNextCursor());
         assertEquals(commonAppointment.getService().getId(), appointmentsReturn.get(0).getServiceId());
         assertEquals(commonAppointment.getBusiness().getName(), appointmentsReturn.get(0).getBusinessName());
     }
 
     @Test
     public void listByBusinessTest_WhenStaffNotFound() {
+        when(loggedUserService.current()).thenReturn(AuthenticatedUser.from(commonUserStaff));
         when(staffRepository.findById(commonUserStaff.getId())).thenReturn(Optional.empty());
 
-        assertThrows(BusinessException.class, () -> appointmentService.listByBusiness(commonBusiness.getId()));
+        assertThrows(BusinessException.class,
+                () -> appointmentService.listByBusiness(commonBusiness.getId(), emptyFilter()));
     }
 
     @Test
     public void listByBusinessTest_WhenStaffNotAuthorized() {
-        when(loggedUserService.get()).thenReturn(commonUserStaff);
+        when(loggedUserService.current()).thenReturn(AuthenticatedUser.from(commonUserStaff));
         when(staffRepository.findById(commonUserStaff.getId())).thenReturn(Optional.of(commonStaff));
         Business otherBusiness = new Business();
         otherBusiness.setId(999);
         commonStaff.setBusiness(otherBusiness);
 
-        assertThrows(BusinessException.class, () -> appointmentService.listByBusiness(commonBusiness.getId()));
+        assertThrows(BusinessException.class,
+                () -> appointmentService.listByBusiness(commonBusiness.getId(), emptyFilter()));
     }
 
     @Test
     public void listByStaffTest_Success() {
-        when(loggedUserService.get()).thenReturn(commonUserStaff);
+        when(loggedUserService.current()).thenReturn(AuthenticatedUser.from(commonUserStaff));
         when(staffRepository.findById(commonUserStaff.getId())).thenReturn(Optional.of(commonStaff));
-        when(appointmentRepository.findByStaffId(commonStaff.getId())).thenReturn(List.of(commonAppointment));
+        when(appointmentRepository.findPageByStaff(eq(commonStaff.getId()), any(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(toReturn(commonAppointment)));
 
-        List<AppointmentReturnDTO> result = appointmentService.listByStaff();
+        AppointmentPageDTO result = appointmentService.listByStaff(emptyFilter());
 
-        assertEquals(1, result.size());
-        verify(appointmentRepository).findByStaffId(commonStaff.getId());
+        assertEquals(1, result.getItems().size());
+        verify(appointmentRepository).findPageByStaff(eq(commonStaff.getId()), any(), any(), any(), any(), any(),
+                eq(Limit.of(21)));
     }
 
     @Test
     public void listByStaffTest_WhenStaffNotFound() {
-        when(loggedUserService.get()).thenReturn(commonUserStaff);
+        when(loggedUserService.current()).thenReturn(AuthenticatedUser.from(commonUserStaff));
         when(staffRepository.findById(commonUserStaff.getId())).thenReturn(Optional.empty());
 
-        assertThrows(BusinessException.class, () -> appointmentService.listByStaff());
+        assertThrows(BusinessException.class, () -> appointmentService.listByStaff(emptyFilter()));
 
     }
 
     @Test
     public void listByClientTest_Success() {
-        when(loggedUserService.get()).thenReturn(commonClient);
-        when(appointmentRepository.findByClientId(commonClient.getId())).thenReturn(List.of(commonAppointment));
+        when(loggedUserService.current()).thenReturn(AuthenticatedUser.from(commonClient));
+        when(appointmentRepository.findPageByClient(eq(commonClient.getId()), any(), any(), any(), any(), any(),
+                any())).thenReturn(List.of(toReturn(commonAppointment)));
 
-        List<AppointmentReturnDTO> result = appointmentService.listByClient();
+        AppointmentPageDTO result = appointmentService.listByClient(emptyFilter());
+
+        assertEquals(1, result.getItems().size());
+        verify(appointmentRepository).findPageByClient(eq(commonClient.getId()), any(), any(), any(), any(), any(),
+                any());
+    }
+
+    @Test
+    public void listByClientTest_DefaultsToCurrentWeek() {
+        when(loggedUserService.current()).thenReturn(AuthenticatedUser.from(commonClient));
+        LocalDateTime monday = LocalDate.now().with(DayOfWeek.MONDAY).atStartOfDay();
+
+        appointmentService.listByClient(emptyFilter());
+
+        verify(appointmentRepository).findPageByClient(eq(commonClient.getId()),
+                eq(EnumSet.allOf(AppointmentStatus.class)), eq(monday), eq(monday.plusDays(7)), eq(monday), eq(0),
+                eq(Limit.of(21)));
+    }
+
+    @Test
+    public void listByClientTest_ReturnsCursorThatResumesAfterLastItem() {
+        when(loggedUserService.current()).thenReturn(AuthenticatedUser.from(commonClient));
+        commonAppointment.setId(1);
+        Appointment second = new Appointment();
+        second.setId(2);
+        second.setBusiness(commonBusiness);
+        second.setService(commonService);
+        second.setStaff(commonStaff);
+        second.setClient(commonClient);
+        second.setStartTime(commonAppointment.getStartTime().plusHours(1));
+        second.setEndTime(commonAppointment.getEndTime().plusHours(1));
+        when(appointmentRepository.findPageByClient(eq(commonClient.getId()), any(), any(), any(), eq(FROM), eq(0),
+                eq(Limit.of(2)))).thenReturn(List.of(toReturn(commonAppointment), toReturn(second)));
+
+        AppointmentPageDTO first = appointmentService.listByClient(
+                new AppointmentFilterDTO(FROM, FROM.plusDays(30), AppointmentStatus.SCHEDULED, null, 1));
+
+        assertEquals(1, first.getItems().size());
+        assertNotNull(first.getNextCursor());
+
+        appointmentService.listByClient(
+                new AppointmentFilterDTO(FROM, FROM.plusDays(30), AppointmentStatus.SCHEDULED, first.getNextCursor(), 1));
+
+        verify(appointmentRepository).findPageByClient(eq(commonClient.getId()),
+                eq(EnumSet.of(AppointmentStatus.SCHEDULED)), eq(FROM), eq(FROM.plusDays(30)),
+                eq(commonAppointment.getStartTime()), eq(commonAppointment.getId()), eq(Limit.of(2)));
+    }
+
+    @Test
+    public void listByClientTest_WhenCursorIsInvalid() {
+        when(loggedUserService.current()).thenReturn(AuthenticatedUser.from(commonClient));
+
+        assertThrows(BusinessException.class, () -> appointmentService.listByClient(
+                new AppointmentFilterDTO(null, null, null, "not-a-cursor", null)));
+        verify(appointmentRepository, never()).findPageByClient(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void listByClientTest_WhenPageSizeTooLarge() {
+        when(loggedUserService.current()).thenReturn(AuthenticatedUser.from(commonClient));
+
+        assertThrows(BusinessException.class, () -> appointmentService.listByClient(
+                new AppointmentFilterDTO(null, null, null, null, 500)));
+    }
+
+    private AppointmentFilterDTO emptyFilter() {
+        return new AppointmentFilterDTO(null, null, null, null, null);
+    }
+
+    //Staff are identified by the id they share with their user, as AppointmentService compares the two
+    private AuthenticatedUser staffPrincipal() {
+        return new AuthenticatedUser(commonStaff.getId(), commonUserStaff.getEmail(), null, UserRoleEnum.STAFF, true,
+                0);
+    }
 
-        assertEquals(1, result.size());
-        verify(appointmentRepository).findByClientId(commonClient.getId());
+    private AppointmentReturnDTO toReturn(Appointment appointment) {
+        return new AppointmentReturnDTO(appointment.getId(), appointment.getBusiness().getName(),
+                appointment.getBusiness().getId(), appointment.getService().getId(), appointment.getService().getName(),
+                appointment.getStaff().getId(), appointment.getStaff().getPublicName(), appointment.getClient().getId(),
+                appointment.getStartTime(), appointment.getEndTime(), appointment.getStatus());
     }
 
 }
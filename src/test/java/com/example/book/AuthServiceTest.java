@@ -4,7 +4,6 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -18,12 +17,25 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 
 import com.example.book.auth.dto.AuthInputDto;
 import com.example.book.auth.dto.AuthReturnDTO;
+import com.example.book.auth.dto.RefreshInputDTO;
 import com.example.book.auth.service.AuthService;
+import com.example.book.auth.service.PasswordUpgradeService;
+import com.example.book.auth.service.RefreshTokenService;
+import com.example.book.common.exceptions.UnauthorizedException;
+import com.example.book.common.security.AuthenticatedUser;
 import com.example.book.common.security.JwtService;
+import com.example.book.common.security.TokenRevocationList;
 import com.example.book.user.dto.UserInputDTO;
+import com.example.book.user.dto.UserReturnDTO;
+import com.example.book.user.enums.UserRoleEnum;
+import com.example.book.user.model.User;
 import com.example.book.user.service.UserService;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +50,15 @@ public class AuthServiceTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private PasswordUpgradeService passwordUpgradeService;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+
     @InjectMocks
     private AuthService authService;
 
@@ -48,11 +69,15 @@ public class AuthServiceTest {
     void setUp() {
         authInputDto = new AuthInputDto("Matheus", "matheus.com", "senha123");
         userInputDTO = new UserInputDTO(authInputDto.getName(), authInputDto.getEmail(), authInputDto.getPassword());
-        lenient().when(jwt.generateToken(userInputDTO.getEmail())).thenReturn("tokenJwt");
+        lenient().when(jwt.generateToken(any(AuthenticatedUser.class))).thenReturn("tokenJwt");
+        lenient().when(refreshTokenService.issue(any(AuthenticatedUser.class))).thenReturn("refresh");
     }
 
     @Test
     public void registerTest_Success() {
+        when(userService.createUser(any(UserInputDTO.class)))
+                .thenReturn(new UserReturnDTO(1, authInputDto.getName(), authInputDto.getEmail(), UserRoleEnum.CLIENT));
+
         AuthReturnDTO authReturn = authService.register(authInputDto);
 
         assertEquals("tokenJwt", authReturn.getToken());
@@ -62,12 +87,19 @@ public class AuthServiceTest {
 
     @Test
     public void loginTest_Success() {
+        AuthenticatedUser principal = new AuthenticatedUser(1, authInputDto.getEmail(), null, UserRoleEnum.CLIENT,
+                true, 0);
+        when(authenticationManager.authenticate(any()))
+                .thenReturn(new UsernamePasswordAuthenticationToken(principal, null));
+
         AuthReturnDTO loginReturn = authService.login(authInputDto);
 
         assertNotNull(loginReturn);
         assertEquals("tokenJwt", loginReturn.getToken());
+        assertEquals("refresh", loginReturn.getRefreshToken());
 
         verify(authenticationManager).authenticate(any());
+        verify(passwordUpgradeService).upgradeInBackground(1, "senha123");
     }
 
     @Test
@@ -77,7 +109,48 @@ public class AuthServiceTest {
 
         assertThrows(BadCredentialsException.class, () -> authService.login(authInputDto));
 
-        verify(jwt, never()).generateToken(anyString());
+        verify(jwt, never()).generateToken(any(AuthenticatedUser.class));
+        verify(passwordUpgradeService, never()).upgradeInBackground(any(), any());
+        verify(refreshTokenService, never()).issue(any(AuthenticatedUser.class));
+    }
+
+    @Test
+    public void loginTest_WhenUserDeactivated() {
+        User user = new User(authInputDto.getName(), authInputDto.getEmail(), "{noop}senha123");
+        user.setId(1);
+        user.setActive(false);
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(email -> AuthenticatedUser.from(user));
+        provider.setPasswordEncoder(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+        AuthService service = new AuthService(userService, jwt, new ProviderManager(provider),
+                passwordUpgradeService, refreshTokenService, tokenRevocationList);
+
+        assertThrows(UnauthorizedException.class, () -> service.login(authInputDto));
+
+        verify(jwt, never()).generateToken(any(AuthenticatedUser.class));
+        verify(refreshTokenService, never()).issue(any(AuthenticatedUser.class));
+    }
+
+    @Test
+    public void refreshTest_Success() {
+        AuthenticatedUser principal = new AuthenticatedUser(1, authInputDto.getEmail(), null, UserRoleEnum.CLIENT,
+                true, 0);
+        when(refreshTokenService.rotate("old")).thenReturn(new RefreshTokenService.Rotation(principal, "new"));
+
+        AuthReturnDTO refreshed = authService.refresh(new RefreshInputDTO("old"));
+
+        assertEquals("tokenJwt", refreshed.getToken());
+        assertEquals("new", refreshed.getRefreshToken());
+    }
+
+    @Test
+    public void logoutTest_RevokesBothTokens() {
+        when(jwt.verify("access")).thenReturn(
+                new JwtService.VerifiedToken(authInputDto.getEmail(), 1, "CLIENT", 0, "jti-1", null));
+
+        authService.logout(new RefreshInputDTO("refresh"), "access");
+
+        verify(refreshTokenService).revoke("refresh", 1);
+        verify(tokenRevocationList).revokeToken("jti-1");
     }
 
 }
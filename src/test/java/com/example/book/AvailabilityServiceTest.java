@@ -0,0 +1,189 @@
+package com.example.book;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.book.appointment.dto.BusyIntervalDTO;
+import com.example.book.appointment.dto.StaffAvailabilityDTO;
+import com.example.book.appointment.enums.AppointmentStatus;
+import com.example.book.appointment.index.StaffDayBitmap;
+import com.example.book.appointment.index.StaffScheduleIndex;
+import com.example.book.appointment.repository.AppointmentRepository;
+import com.example.book.appointment.service.AvailabilityService;
+import com.example.book.business.enums.BusinessType;
+import com.example.book.business.model.Business;
+import com.example.book.business.model.WorkingHours;
+import com.example.book.business.repository.BusinessRepository;
+import com.example.book.business.schedule.CompiledSchedule;
+import com.example.book.business.schedule.WorkingHoursCache;
+import com.example.book.common.exceptions.BusinessException;
+import com.example.book.servicecatalog.model.ServiceCatalog;
+import com.example.book.servicecatalog.repository.ServiceCatalogRepository;
+import com.example.book.staff.dto.StaffReturnDTO;
+import com.example.book.staff.model.Staff;
+import com.example.book.staff.repository.StaffRepository;
+import com.example.book.user.model.User;
+
+@ExtendWith(MockitoExtension.class)
+public class AvailabilityServiceTest {
+
+    @Mock
+    private BusinessRepository businessRepository;
+    @Mock
+    private ServiceCatalogRepository serviceCatalogRepository;
+    @Mock
+    private StaffRepository staffRepository;
+    @Mock
+    private WorkingHoursCache workingHoursCache;
+    @Mock
+    private AppointmentRepository appointmentRepository;
+    @Mock
+    private StaffScheduleIndex staffScheduleIndex;
+
+    @InjectMocks
+    private AvailabilityService availabilityService;
+
+    private Business commonBusiness;
+    private ServiceCatalog commonService;
+    private Staff firstStaff;
+    private Staff secondStaff;
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        commonBusiness = new Business("Barbearia Profissional", BusinessType.BARBER);
+        commonBusiness.setId(1);
+        commonBusiness.setActive(true);
+
+        commonService = new ServiceCatalog("Corte", 60, new BigDecimal("60.00"), commonBusiness);
+        commonService.setId(100);
+
+        firstStaff = new Staff(new User("Thiago", "thiago@barbeiro.com", "senha123"), "Thiago Boss", commonBusiness);
+        firstStaff.setId(4);
+        firstStaff.setActive(true);
+
+        secondStaff = new Staff(new User("Lucas", "lucas@barbeiro.com", "senha123"), "Lucas", commonBusiness);
+        secondStaff.setId(5);
+        secondStaff.setActive(true);
+
+        monday = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.previousOrSame(java.time.DayOfWeek.MONDAY));
+    }
+
+    private void stubCatalog() {
+        when(staffScheduleIndex.getSlotMinutes()).thenReturn(1);
+        when(businessRepository.findById(commonBusiness.getId())).thenReturn(Optional.of(commonBusiness));
+        when(serviceCatalogRepository.findById(commonService.getId())).thenReturn(Optional.of(commonService));
+        when(workingHoursCache.schedule(commonBusiness.getId())).thenReturn(CompiledSchedule.compile(List.of(
+                new WorkingHours(java.time.DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(12, 0),
+                        commonBusiness)), List.of()));
+        when(staffRepository.findActiveReturnByBusinessId(commonBusiness.getId()))
+                .thenReturn(List.of(toReturn(firstStaff), toReturn(secondStaff)));
+    }
+
+    @Test
+    public void findAvailabilityTest_SkipsBusyIntervals() {
+        stubCatalog();
+        when(appointmentRepository.findBusyIntervalsByBusiness(eq(commonBusiness.getId()),
+                eq(AppointmentStatus.SCHEDULED), any(), any())).thenReturn(List.of(
+                        new BusyIntervalDTO(1, firstStaff.getId(), monday.atTime(9, 30), monday.atTime(10, 30))));
+
+        List<StaffAvailabilityDTO> result = availabilityService.findAvailability(commonBusiness.getId(),
+                commonService.getId(), monday, monday);
+
+        assertEquals(2, result.size());
+        assertEquals(List.of(monday.atTime(10, 30)), result.get(0).getAvailableSlots());
+        assertEquals(List.of(monday.atTime(9, 0), monday.atTime(10, 0), monday.atTime(11, 0)),
+                result.get(1).getAvailableSlots());
+    }
+
+    @Test
+    public void findAvailabilityTest_UsesSingleRangeQueryForWholeWeek() {
+        stubCatalog();
+        LocalDate sunday = monday.plusDays(6);
+        when(appointmentRepository.findBusyIntervalsByBusiness(commonBusiness.getId(),
+                AppointmentStatus.SCHEDULED, monday.atStartOfDay(), sunday.plusDays(1).atStartOfDay()))
+                .thenReturn(List.of());
+
+        List<StaffAvailabilityDTO> result = availabilityService.findAvailability(commonBusiness.getId(),
+                commonService.getId(), monday, sunday);
+
+        assertEquals(3, result.get(0).getAvailableSlots().size());
+        assertTrue(result.get(0).getAvailableSlots().stream()
+                .allMatch(slot -> slot.toLocalDate().equals(monday)));
+        verify(appointmentRepository, times(1)).findBusyIntervalsByBusiness(any(), any(), any(), any());
+    }
+
+    @Test
+    public void findAvailabilityTest_ReadsBookedSlotsFromIndex() {
+        stubCatalog();
+        when(staffScheduleIndex.bookedSlots(firstStaff.getId(), monday))
+                .thenReturn(Optional.of(StaffDayBitmap.covering(1, 9 * 60 + 30, 10 * 60 + 30)));
+        when(staffScheduleIndex.bookedSlots(secondStaff.getId(), monday))
+                .thenReturn(Optional.of(new StaffDayBitmap(1)));
+
+        List<StaffAvailabilityDTO> result = availabilityService.findAvailability(commonBusiness.getId(),
+                commonService.getId(), monday, monday);
+
+        assertEquals(List.of(monday.atTime(10, 30)), result.get(0).getAvailableSlots());
+        assertEquals(3, result.get(1).getAvailableSlots().size());
+        verify(appointmentRepository, never()).findBusyIntervalsByBusiness(any(), any(), any(), any());
+    }
+
+    @Test
+    public void findAvailabilityTest_WhenRangeTooLong() {
+        assertThrows(BusinessException.class, () -> availabilityService.findAvailability(commonBusiness.getId(),
+                commonService.getId(), monday, monday.plusDays(31)));
+    }
+
+    @Test
+    public void findAvailabilityTest_WhenServiceFromOtherBusiness() {
+        Business otherBusiness = new Business("Outra", BusinessType.BARBER);
+        otherBusiness.setId(2);
+        commonService.setBusiness(otherBusiness);
+        when(businessRepository.findById(commonBusiness.getId())).thenReturn(Optional.of(commonBusiness));
+        when(serviceCatalogRepository.findById(commonService.getId())).thenReturn(Optional.of(commonService));
+
+        assertThrows(BusinessException.class, () -> availabilityService.findAvailability(commonBusiness.getId(),
+                commonService.getId(), monday, monday));
+    }
+
+    @Test
+    public void findAvailabilityTest_ExcludesPastSlots() {
+        stubCatalog();
+        LocalDate lastMonday = monday.minusWeeks(2);
+        when(appointmentRepository.findBusyIntervalsByBusiness(any(), any(), any(), any())).thenReturn(List.of());
+
+        List<StaffAvailabilityDTO> result = availabilityService.findAvailability(commonBusiness.getId(),
+                commonService.getId(), lastMonday, lastMonday);
+
+        assertTrue(result.get(0).getAvailableSlots().isEmpty());
+        assertTrue(LocalDateTime.now().isAfter(lastMonday.atTime(12, 0)));
+    }
+
+    private StaffReturnDTO toReturn(Staff staff) {
+        return new StaffReturnDTO(staff.getId(), staff.getPublicName(), staff.isActive(), staff.getBusiness().getId());
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.example.book;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.book.appointment.index.StaffDayBitmap;
+import com.example.book.appointment.policy.AppointmentContext;
+import com.example.book.appointment.policy.BarberShopSchedulingPolicy;
+import com.example.book.business.enums.BusinessType;
+import com.example.book.business.model.Business;
+import com.example.book.business.model.WorkingHours;
+import com.example.book.business.schedule.CompiledSchedule;
+import com.example.book.common.exceptions.BusinessException;
+import com.example.book.servicecatalog.model.ServiceCatalog;
+import com.example.book.staff.model.Staff;
+
+public class BarberShopSchedulingPolicyTest {
+
+    private final BarberShopSchedulingPolicy policy = new BarberShopSchedulingPolicy();
+
+    private Business business;
+    private Staff staff;
+    private ServiceCatalog service;
+    private CompiledSchedule schedule;
+
+    @BeforeEach
+    void setUp() {
+        business = new Business("Barbearia Profissional", BusinessType.BARBER);
+        business.setId(1);
+        staff = new Staff(null, "Matheus", business);
+        staff.setId(1);
+        service = new ServiceCatalog("Corte", 30, BigDecimal.TEN, business);
+        service.setId(1);
+
+        List<WorkingHours> week = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            week.add(new WorkingHours(day, LocalTime.of(0, 0), LocalTime.of(23, 0), business));
+        }
+        schedule = CompiledSchedule.compile(week, List.of());
+    }
+
+    private AppointmentContext contextAt(LocalDateTime start) {
+        return new AppointmentContext(business, staff, service, start, start.plusMinutes(30), schedule,
+                new StaffDayBitmap(1));
+    }
+
+    @Test
+    public void validateScheduleTest_Success() {
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+
+        assertDoesNotThrow(() -> policy.validateSchedule(contextAt(tomorrow)));
+    }
+
+    @Test
+    public void validateScheduleTest_WhenInThePast() {
+        LocalDateTime yesterday = LocalDateTime.now().minusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> policy.validateSchedule(contextAt(yesterday)));
+        assertEquals("Não é possível agendar no passado.", ex.getMessage());
+    }
+
+}
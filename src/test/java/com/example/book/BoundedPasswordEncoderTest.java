@@ -0,0 +1,119 @@
+package com.example.book;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.book.common.exceptions.ServiceUnavailableException;
+import com.example.book.common.security.BoundedPasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BoundedPasswordEncoderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.close();
+        }
+    }
+
+    @Test
+    public void encodeTest_DelegatesToBcrypt() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, 1_000, meterRegistry);
+
+        String hash = encoder.encode("senha123");
+
+        assertTrue(encoder.matches("senha123", hash));
+        assertFalse(encoder.matches("outra", hash));
+        assertEquals(1, meterRegistry.get("auth.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("auth.password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    public void encodeTest_WhenPoolSaturated() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(running, release), 1, 1, 5_000, meterRegistry);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        try {
+            callers.submit(() -> encoder.encode("primeira"));
+            running.await(1, TimeUnit.SECONDS);
+            callers.submit(() -> encoder.encode("na fila"));
+            waitForQueue(1);
+
+            assertThrows(ServiceUnavailableException.class, () -> encoder.encode("rejeitada"));
+            assertEquals(1.0, meterRegistry.get("auth.password.rejected").counter().count());
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void matchesTest_WhenTimeoutExpires() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(running, release), 1, 1, 50, meterRegistry);
+
+        try {
+            assertThrows(ServiceUnavailableException.class, () -> encoder.matches("senha", "hash"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private void waitForQueue(int expected) throws InterruptedException {
+        for (int i = 0; i < 100 && meterRegistry.get("auth.password.queue").gauge().value() < expected; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private PasswordEncoder blockingEncoder(CountDownLatch running, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                running.countDown();
+                await(release);
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                running.countDown();
+                await(release);
+                return true;
+            }
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
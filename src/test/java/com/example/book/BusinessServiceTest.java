@@ -5,11 +5,14 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -18,16 +21,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.book.business.dto.BusinessInputDTO;
 import com.example.book.business.dto.BusinessReturnDTO;
+import com.example.book.business.dto.ClosureInputDTO;
+import com.example.book.business.dto.ClosureReturnDTO;
+import com.example.book.business.dto.TimeIntervalDTO;
+import com.example.book.business.dto.WorkingDayInputDTO;
 import com.example.book.business.dto.WorkingHoursInputDTO;
 import com.example.book.business.dto.WorkingHoursReturnDTO;
 import com.example.book.business.enums.BusinessType;
 import com.example.book.business.model.Business;
 import com.example.book.business.model.WorkingHours;
+import com.example.book.business.repository.BusinessClosureRepository;
 import com.example.book.business.repository.BusinessRepository;
 import com.example.book.business.repository.WorkingHoursRepository;
+import com.example.book.business.schedule.WorkingHoursCache;
 import com.example.book.business.service.BusinessService;
 import com.example.book.common.exceptions.BusinessException;
 import com.example.book.common.exceptions.ResourceNotFoundException;
@@ -45,6 +56,15 @@ public class BusinessServiceTest {
     @Mock
     private StaffAccessService staffAccessService;
 
+    @Mock
+    private WorkingHoursCache workingHoursCache;
+
+    @Mock
+    private BusinessClosureRepository businessClosureRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private BusinessService businessService;
 
@@ -75,6 +95,8 @@ public class BusinessServiceTest {
         // 4. Comportamento Global do StaffAccess
         // Por padrão, não faz nada (deixa o acesso ser validado com sucesso)
         lenient().doNothing().when(staffAccessService).validateStaffAccessToBusiness(anyInt());
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     @Test
@@ -133,7 +155,7 @@ public class BusinessServiceTest {
     public void updateWorkingHoursTest_Succcess() {
         when(businessRepository.findById(commonBusiness.getId())).thenReturn(Optional.of(commonBusiness));
         when(workingHoursRepository.findByBusinessIdAndDayOfWeek(commonBusiness.getId(),
-                workingHoursInput.getDayOfWeek())).thenReturn(Optional.of(commonWorkingHours));
+                workingHoursInput.getDayOfWeek())).thenReturn(List.of(commonWorkingHours));
 
         WorkingHoursReturnDTO workingHoursReturn = businessService.updateWorkingHours(workingHoursInput);
 
@@ -141,6 +163,7 @@ public class BusinessServiceTest {
         assertEquals(workingHoursInput.getStartTime(), workingHoursReturn.getStartTime());
         assertEquals(workingHoursInput.getEndTime(), workingHoursReturn.getEndTime());
         verify(workingHoursRepository).save(any());
+        verify(workingHoursCache).invalidate(commonBusiness.getId());
     }
 
     @Test
@@ -161,6 +184,64 @@ public class BusinessServiceTest {
         assertThrows(BusinessException.class, () -> businessService.updateWorkingHours(invalidInput));
     }
 
+    @Test
+    public void replaceWorkingDayTest_Success() {
+        when(businessRepository.findById(commonBusiness.getId())).thenReturn(Optional.of(commonBusiness));
+        when(workingHoursRepository.findByBusinessIdAndDayOfWeek(commonBusiness.getId(), DayOfWeek.MONDAY))
+                .thenReturn(List.of(commonWorkingHours));
+        WorkingDayInputDTO input = new WorkingDayInputDTO(1, DayOfWeek.MONDAY, List.of(
+                new TimeIntervalDTO(LocalTime.of(13, 0), LocalTime.of(18, 0)),
+                new TimeIntervalDTO(LocalTime.of(8, 0), LocalTime.of(12, 0))));
+
+        List<WorkingHoursReturnDTO> workingHoursReturn = businessService.replaceWorkingDay(input);
+
+        assertEquals(2, workingHoursReturn.size());
+        assertEquals(commonWorkingHours.getId(), workingHoursReturn.get(0).getId());
+        assertEquals(LocalTime.of(12, 0), workingHoursReturn.get(0).getEndTime());
+        assertEquals(LocalTime.of(13, 0), workingHoursReturn.get(1).getStartTime());
+        verify(workingHoursCache).invalidate(commonBusiness.getId());
+    }
+
+    @Test
+    public void replaceWorkingDayTest_WhenIntervalsOverlap() {
+        when(businessRepository.findById(commonBusiness.getId())).thenReturn(Optional.of(commonBusiness));
+        WorkingDayInputDTO input = new WorkingDayInputDTO(1, DayOfWeek.MONDAY, List.of(
+                new TimeIntervalDTO(LocalTime.of(8, 0), LocalTime.of(12, 0)),
+                new TimeIntervalDTO(LocalTime.of(11, 0), LocalTime.of(18, 0))));
+
+        assertThrows(BusinessException.class, () -> businessService.replaceWorkingDay(input));
+        verify(workingHoursCache, never()).invalidate(anyInt());
+    }
+
+    @Test
+    public void addClosureTest_Success() {
+        when(businessRepository.findById(commonBusiness.getId())).thenReturn(Optional.of(commonBusiness));
+        ClosureInputDTO input = new ClosureInputDTO(LocalDate.of(2030, 12, 25), null, null, "Natal");
+
+        ClosureReturnDTO closureReturn = businessService.addClosure(commonBusiness.getId(), input);
+
+        assertEquals(input.getDate(), closureReturn.getDate());
+        assertEquals(commonBusiness.getId(), closureReturn.getBusinessId());
+        verify(businessClosureRepository).save(any());
+        verify(workingHoursCache).invalidate(commonBusiness.getId());
+    }
+
+    @Test
+    public void addClosureTest_WhenOnlyStartTimeIsSet() {
+        when(businessRepository.findById(commonBusiness.getId())).thenReturn(Optional.of(commonBusiness));
+        ClosureInputDTO input = new ClosureInputDTO(LocalDate.of(2030, 12, 24), LocalTime.of(14, 0), null, "Véspera");
+
+        assertThrows(BusinessException.class, () -> businessService.addClosure(commonBusiness.getId(), input));
+    }
+
+    @Test
+    public void removeClosureTest_WhenNotFound() {
+        when(businessClosureRepository.findByIdAndBusinessId(5, commonBusiness.getId())).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> businessService.removeClosure(commonBusiness.getId(), 5));
+    }
+
     @Test
     public void desactivateBusinessTest_Success() {
         when(businessRepository.findById(commonBusiness.getId())).thenReturn(Optional.of(commonBusiness));
@@ -0,0 +1,90 @@
+package com.example.book;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.book.appointment.index.StaffDayBitmap;
+import com.example.book.business.enums.BusinessType;
+import com.example.book.business.model.Business;
+import com.example.book.business.model.BusinessClosure;
+import com.example.book.business.model.WorkingHours;
+import com.example.book.business.schedule.CompiledSchedule;
+
+public class CompiledScheduleTest {
+
+    //2030-01-07 is a monday
+    private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+
+    private Business business;
+
+    @BeforeEach
+    void setUp() {
+        business = new Business("Barbearia Profissional", BusinessType.BARBER);
+        business.setId(1);
+    }
+
+    private WorkingHours monday(int startHour, int endHour) {
+        return new WorkingHours(DayOfWeek.MONDAY, LocalTime.of(startHour, 0), LocalTime.of(endHour, 0), business);
+    }
+
+    @Test
+    public void isOpenTest_WithLunchBreak() {
+        CompiledSchedule schedule = CompiledSchedule.compile(List.of(monday(13, 18), monday(8, 12)), List.of());
+
+        assertTrue(schedule.isOpen(MONDAY, 8 * 60, 12 * 60));
+        assertTrue(schedule.isOpen(MONDAY, 13 * 60, 14 * 60));
+        assertFalse(schedule.isOpen(MONDAY, 11 * 60 + 30, 12 * 60 + 30));
+        assertFalse(schedule.isOpen(MONDAY, 7 * 60, 8 * 60 + 30));
+        assertFalse(schedule.isOpen(MONDAY.plusDays(1), 9 * 60, 10 * 60));
+    }
+
+    @Test
+    public void isOpenTest_MergesTouchingIntervals() {
+        CompiledSchedule schedule = CompiledSchedule.compile(List.of(monday(8, 12), monday(12, 18)), List.of());
+
+        assertTrue(schedule.isOpen(MONDAY, 11 * 60, 13 * 60));
+    }
+
+    @Test
+    public void isOpenTest_WhenWholeDayIsClosed() {
+        CompiledSchedule schedule = CompiledSchedule.compile(List.of(monday(8, 18)),
+                List.of(new BusinessClosure(MONDAY, null, null, "Feriado", business)));
+
+        assertTrue(schedule.hasHours(DayOfWeek.MONDAY));
+        assertFalse(schedule.isOpen(MONDAY, 9 * 60, 10 * 60));
+        assertTrue(schedule.isOpen(MONDAY.plusWeeks(1), 9 * 60, 10 * 60));
+    }
+
+    @Test
+    public void isOpenTest_WhenPartOfDayIsClosed() {
+        CompiledSchedule schedule = CompiledSchedule.compile(List.of(monday(8, 18)),
+                List.of(new BusinessClosure(MONDAY, LocalTime.of(14, 0), LocalTime.of(16, 0), "Reunião", business)));
+
+        assertTrue(schedule.isOpen(MONDAY, 9 * 60, 14 * 60));
+        assertFalse(schedule.isOpen(MONDAY, 13 * 60 + 30, 14 * 60 + 30));
+        assertFalse(schedule.isOpen(MONDAY, 15 * 60, 15 * 60 + 30));
+        assertTrue(schedule.isOpen(MONDAY, 16 * 60, 17 * 60));
+    }
+
+    @Test
+    public void openSlotsTest_SkipsBreakAndClosure() {
+        CompiledSchedule schedule = CompiledSchedule.compile(List.of(monday(8, 12), monday(13, 18)),
+                List.of(new BusinessClosure(MONDAY, LocalTime.of(16, 0), LocalTime.of(18, 0), "Reunião", business)));
+
+        StaffDayBitmap open = schedule.openSlots(MONDAY, 30);
+
+        assertTrue(open.containsAll(StaffDayBitmap.within(30, 8 * 60, 12 * 60)));
+        assertTrue(open.containsAll(StaffDayBitmap.within(30, 13 * 60, 16 * 60)));
+        assertFalse(open.intersects(StaffDayBitmap.covering(30, 12 * 60, 13 * 60)));
+        assertFalse(open.intersects(StaffDayBitmap.covering(30, 16 * 60, 18 * 60)));
+    }
+
+}
@@ -0,0 +1,216 @@
+package com.example.book;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.book.common.security.AuthenticatedUser;
+import com.example.book.common.security.JwtAuthenticationFilter;
+import com.example.book.common.security.JwtFilterMode;
+import com.example.book.common.security.JwtService;
+import com.example.book.common.security.TokenRevocationList;
+import com.example.book.common.security.UserDetailsServiceImpl;
+import com.example.book.common.security.VerifiedTokenCache;
+import com.example.book.user.enums.UserRoleEnum;
+
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.jsonwebtoken.security.Keys;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "test-secret-key-with-at-least-256-bits!!";
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    private JwtService jwtService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private VerifiedTokenCache verifiedTokenCache;
+
+    private TokenRevocationList tokenRevocationList;
+
+    private AuthenticatedUser staff;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SECRET, 60_000L);
+        meterRegistry = new SimpleMeterRegistry();
+        verifiedTokenCache = new VerifiedTokenCache(jwtService, true, 1_000, meterRegistry);
+
+        staff = new AuthenticatedUser(3, "thiago@barbeiro.com", null, UserRoleEnum.STAFF, true, 2);
+        tokenRevocationList = new TokenRevocationList(60_000L, 1_000, 0.01, meterRegistry, System::nanoTime);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void generateTokenTest_EmbedsIdRoleAndVersion() {
+        AuthenticatedUser parsed = jwtService.verify(jwtService.generateToken(staff)).principal().orElseThrow();
+
+        assertEquals(3, parsed.getId());
+        assertEquals("thiago@barbeiro.com", parsed.getEmail());
+        assertEquals(UserRoleEnum.STAFF, parsed.getRole());
+        assertEquals(2, parsed.getTokenVersion());
+    }
+
+    @Test
+    public void jwtServiceTest_WhenSecretTooShort() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> new JwtService("MY_SUPER_SECRET_KEY_123456789", 60_000L));
+
+        assertTrue(ex.getMessage().contains("JWT_SECRET"));
+        assertThrows(IllegalArgumentException.class, () -> new JwtService("", 60_000L));
+    }
+
+    @Test
+    public void claimsModeTest_AuthenticatesWithoutLoadingUser() throws Exception {
+        filter(JwtFilterMode.CLAIMS).doFilter(request(jwtService.generateToken(staff)), new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        AuthenticatedUser principal = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication()
+                .getPrincipal();
+        assertEquals(3, principal.getId());
+        assertTrue(SecurityContextHolder.getContext().getAuthentication().getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_STAFF")));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    public void claimsModeTest_WhenTokenVersionRevoked() throws Exception {
+        String token = jwtService.generateToken(staff);
+        tokenRevocationList.revokeUser(staff.getId(), staff.getTokenVersion() + 1);
+
+        filter(JwtFilterMode.CLAIMS).doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    public void claimsModeTest_WhenTokenIdRevoked() throws Exception {
+        String token = jwtService.generateToken(staff);
+        tokenRevocationList.revokeToken(jwtService.verify(token).tokenId());
+
+        filter(JwtFilterMode.CLAIMS).doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    public void claimsModeTest_FallsBackToDatabaseForLegacyToken() throws Exception {
+        String legacy = Jwts.builder()
+                .subject(staff.getEmail())
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .compact();
+        when(userDetailsService.loadUserByUsername(staff.getEmail()))
+                .thenReturn(new AuthenticatedUser(3, staff.getEmail(), "hash", UserRoleEnum.STAFF, true, 2));
+
+        filter(JwtFilterMode.CLAIMS).doFilter(request(legacy), new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(userDetailsService).loadUserByUsername(staff.getEmail());
+        AuthenticatedUser principal = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication()
+                .getPrincipal();
+        assertNull(principal.getPassword());
+    }
+
+    @Test
+    public void databaseModeTest_RejectsOutdatedVersion() throws Exception {
+        when(userDetailsService.loadUserByUsername(staff.getEmail()))
+                .thenReturn(new AuthenticatedUser(3, staff.getEmail(), "hash", UserRoleEnum.STAFF, true, 3));
+
+        filter(JwtFilterMode.DATABASE).doFilter(request(jwtService.generateToken(staff)),
+                new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    public void filterTest_WhenTokenExpired() throws Exception {
+        String expired = new JwtService(SECRET, -1_000L).generateToken(staff);
+
+        filter(JwtFilterMode.CLAIMS).doFilter(request(expired), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    public void filterTest_WhenTokenTampered() throws Exception {
+        String token = jwtService.generateToken(staff);
+
+        filter(JwtFilterMode.CLAIMS).doFilter(request(token.substring(0, token.length() - 2) + "xx"),
+                new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    public void verifiedCacheTest_SkipsVerificationForRepeatedToken() {
+        String token = jwtService.generateToken(staff);
+
+        JwtService.VerifiedToken first = verifiedTokenCache.verify(token);
+        JwtService.VerifiedToken second = verifiedTokenCache.verify(token);
+
+        assertSame(first, second);
+        assertEquals(1, meterRegistry.get("jwt.verify").timer().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    public void verifiedCacheTest_WhenTokenDiffers() {
+        String token = jwtService.generateToken(staff);
+        String other = jwtService.generateToken(
+                new AuthenticatedUser(4, "ana@barbeiro.com", null, UserRoleEnum.STAFF, true, 0));
+
+        assertNotEquals(verifiedTokenCache.verify(token).email(), verifiedTokenCache.verify(other).email());
+        assertEquals(2, meterRegistry.get("jwt.verify").timer().count());
+    }
+
+    @Test
+    public void verifiedCacheTest_WhenDisabled() {
+        VerifiedTokenCache disabled = new VerifiedTokenCache(jwtService, false, 1_000, meterRegistry);
+        String token = jwtService.generateToken(staff);
+
+        disabled.verify(token);
+        disabled.verify(token);
+
+        assertEquals(2, meterRegistry.get("jwt.verify").timer().count());
+    }
+
+    private JwtAuthenticationFilter filter(JwtFilterMode mode) {
+        return new JwtAuthenticationFilter(verifiedTokenCache, userDetailsService, tokenRevocationList, mode);
+    }
+
+    private MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.example.book;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.book.common.exceptions.UnauthorizedException;
+import com.example.book.common.security.AuthenticatedUser;
+import com.example.book.common.security.LoggedUserService;
+import com.example.book.user.enums.UserRoleEnum;
+import com.example.book.user.model.User;
+import com.example.book.user.repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class LoggedUserServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private LoggedUserService loggedUserService;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void currentTest_ReturnsPrincipalWithoutDatabase() {
+        AuthenticatedUser principal = new AuthenticatedUser(2, "math@email.com", null, UserRoleEnum.CLIENT, true, 0);
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(principal, null));
+
+        AuthenticatedUser current = loggedUserService.current();
+
+        assertSame(principal, current);
+        assertEquals(UserRoleEnum.CLIENT, current.getRole());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void currentTest_WhenNotAuthenticated() {
+        assertThrows(UnauthorizedException.class, () -> loggedUserService.current());
+    }
+
+    @Test
+    public void referenceTest_UsesIdFromPrincipal() {
+        AuthenticatedUser principal = new AuthenticatedUser(2, "math@email.com", null, UserRoleEnum.CLIENT, true, 0);
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(principal, null));
+        User reference = new User();
+        when(userRepository.getReferenceById(2)).thenReturn(reference);
+
+        assertSame(reference, loggedUserService.reference());
+    }
+
+}
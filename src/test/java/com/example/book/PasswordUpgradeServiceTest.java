@@ -0,0 +1,98 @@
+package com.example.book;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+
+import com.example.book.auth.service.PasswordUpgradeService;
+import com.example.book.user.model.User;
+import com.example.book.user.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class PasswordUpgradeServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private DelegatingPasswordEncoder encoder;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private PasswordUpgradeService passwordUpgradeService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", new BCryptPasswordEncoder(5)));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(4));
+        meterRegistry = new SimpleMeterRegistry();
+        passwordUpgradeService = new PasswordUpgradeService(userRepository, encoder, 10, meterRegistry);
+
+        user = new User("Matheus", "math@email.com", null);
+        user.setId(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordUpgradeService.shutdown();
+    }
+
+    @Test
+    public void upgradeTest_RehashesLegacyHash() {
+        String legacy = new BCryptPasswordEncoder(4).encode("senha123");
+        user.setPassword(legacy);
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(userRepository.updatePasswordHash(eq(1), eq(legacy), anyString())).thenReturn(1);
+
+        assertTrue(passwordUpgradeService.upgrade(1, "senha123"));
+
+        ArgumentCaptor<String> newHash = ArgumentCaptor.forClass(String.class);
+        verify(userRepository).updatePasswordHash(eq(1), eq(legacy), newHash.capture());
+        assertTrue(newHash.getValue().startsWith("{bcrypt}$2a$05$"));
+        assertTrue(encoder.matches("senha123", newHash.getValue()));
+        assertEquals(1.0, meterRegistry.get("auth.password.upgraded").counter().count());
+    }
+
+    @Test
+    public void upgradeTest_WhenHashIsCurrent() {
+        user.setPassword(encoder.encode("senha123"));
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+
+        assertFalse(passwordUpgradeService.upgrade(1, "senha123"));
+
+        verify(userRepository, never()).updatePasswordHash(eq(1), anyString(), anyString());
+    }
+
+    @Test
+    public void upgradeTest_WhenPasswordChangedMeanwhile() {
+        String legacy = new BCryptPasswordEncoder(4).encode("senha123");
+        user.setPassword(legacy);
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(userRepository.updatePasswordHash(eq(1), eq(legacy), anyString())).thenReturn(0);
+
+        assertFalse(passwordUpgradeService.upgrade(1, "senha123"));
+        assertEquals(0.0, meterRegistry.get("auth.password.upgraded").counter().count());
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.example.book;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.book.auth.model.RefreshToken;
+import com.example.book.auth.repository.RefreshTokenRepository;
+import com.example.book.auth.service.RefreshTokenService;
+import com.example.book.common.exceptions.UnauthorizedException;
+import com.example.book.common.security.AuthenticatedUser;
+import com.example.book.user.model.User;
+import com.example.book.user.repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+
+    private static final String FAMILY = "family-1";
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private RefreshTokenService refreshTokenService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, userRepository, 60_000L);
+
+        user = new User("Matheus", "math@email.com", "hash");
+        user.setId(1);
+    }
+
+    @Test
+    public void issueTest_StoresOnlyTheHash() {
+        when(userRepository.getReferenceById(1)).thenReturn(user);
+
+        String raw = refreshTokenService.issue(AuthenticatedUser.from(user));
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertNotEquals(raw, saved.getValue().getTokenHash());
+        assertEquals(64, saved.getValue().getTokenHash().length());
+        assertNotNull(saved.getValue().getFamilyId());
+    }
+
+    @Test
+    public void rotateTest_Success() {
+        RefreshToken stored = stored(0, LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.revokeIfActive(7)).thenReturn(1);
+        when(userRepository.getReferenceById(1)).thenReturn(user);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("raw");
+
+        verify(refreshTokenRepository).revokeIfActive(7);
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertEquals(FAMILY, saved.getValue().getFamilyId());
+        assertEquals(1, rotation.user().getId());
+        assertNotEquals("raw", rotation.refreshToken());
+    }
+
+    @Test
+    public void rotateTest_WhenTokenReused() {
+        RefreshToken stored = stored(0, LocalDateTime.now().plusDays(1));
+        stored.setRevoked(true);
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+
+        assertThrows(UnauthorizedException.class, () -> refreshTokenService.rotate("raw"));
+
+        //Only the family of the reused token, the other logins of the user stay valid
+        verify(refreshTokenRepository).revokeFamily(FAMILY);
+        verify(refreshTokenRepository, never()).revokeAllByUserId(any());
+    }
+
+    @Test
+    public void rotateTest_WhenRotatedConcurrently() {
+        when(refreshTokenRepository.findByTokenHash(anyString()))
+                .thenReturn(Optional.of(stored(0, LocalDateTime.now().plusDays(1))));
+        when(refreshTokenRepository.revokeIfActive(7)).thenReturn(0);
+
+        assertThrows(UnauthorizedException.class, () -> refreshTokenService.rotate("raw"));
+
+        verify(refreshTokenRepository).revokeFamily(FAMILY);
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    public void rotateTest_WhenUserTokensRevoked() {
+        user.revokeTokens();
+        when(refreshTokenRepository.findByTokenHash(anyString()))
+                .thenReturn(Optional.of(stored(0, LocalDateTime.now().plusDays(1))));
+        when(refreshTokenRepository.revokeIfActive(7)).thenReturn(1);
+
+        assertThrows(UnauthorizedException.class, () -> refreshTokenService.rotate("raw"));
+
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    public void rotateTest_WhenExpired() {
+        when(refreshTokenRepository.findByTokenHash(anyString()))
+                .thenReturn(Optional.of(stored(0, LocalDateTime.now().minusMinutes(1))));
+        when(refreshTokenRepository.revokeIfActive(7)).thenReturn(1);
+
+        assertThrows(UnauthorizedException.class, () -> refreshTokenService.rotate("raw"));
+    }
+
+    @Test
+    public void revokeTest_Success() {
+        RefreshToken stored = stored(0, LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+
+        refreshTokenService.revoke("raw", 1);
+
+        assertTrue(stored.isRevoked());
+    }
+
+    @Test
+    public void revokeTest_WhenTokenOfAnotherUser() {
+        RefreshToken stored = stored(0, LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+
+        refreshTokenService.revoke("raw", 2);
+
+        assertFalse(stored.isRevoked());
+    }
+
+    @Test
+    public void purgeExpiredTest_Success() {
+        LocalDateTime before = LocalDateTime.now();
+
+        refreshTokenService.purgeExpired();
+
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(refreshTokenRepository).deleteExpired(now.capture());
+        assertFalse(now.getValue().isBefore(before));
+    }
+
+    private RefreshToken stored(int version, LocalDateTime expiresAt) {
+        RefreshToken stored = new RefreshToken("hash", user, FAMILY, version, expiresAt);
+        stored.setId(7);
+        return stored;
+    }
+
+}
@@ -124,8 +124,8 @@ public class ServiceCatalogServiceTest {
 
     @Test
     public void findByBusinessTest_Success() {
-        when(businessRepository.findByName(commonBusiness.getName())).thenReturn(Optional.of(commonBusiness));
-        when(serviceCatalogRepository.findByBusinessId(commonBusiness.getId())).thenReturn(List.of(commonService));
+        when(serviceCatalogRepository.findActiveReturnByBusinessName(commonBusiness.getName()))
+                .thenReturn(List.of(toReturn(commonService)));
 
         List<ServiceCatalogReturnDTO> serviceReturn = serviceCatalogService.findByBusiness(commonBusiness.getName());
 
@@ -135,15 +135,25 @@ public class ServiceCatalogServiceTest {
 
     @Test
     public void findByBusinessTest_WhenBusinessNotFound() {
-        when(businessRepository.findByName(serviceInputDTO.getName())).thenReturn(Optional.empty());
+        when(serviceCatalogRepository.findActiveReturnByBusinessName(commonBusiness.getName())).thenReturn(List.of());
+        when(businessRepository.existsByName(commonBusiness.getName())).thenReturn(false);
 
         assertThrows(ResourceNotFoundException.class,
                 () -> serviceCatalogService.findByBusiness(commonBusiness.getName()));
     }
 
+    @Test
+    public void findByBusinessTest_WhenBusinessHasNoActiveServices() {
+        when(serviceCatalogRepository.findActiveReturnByBusinessName(commonBusiness.getName())).thenReturn(List.of());
+        when(businessRepository.existsByName(commonBusiness.getName())).thenReturn(true);
+
+        assertEquals(0, serviceCatalogService.findByBusiness(commonBusiness.getName()).size());
+    }
+
     @Test
     public void findByIdTest_Success() {
-        when(serviceCatalogRepository.findById(commonService.getId())).thenReturn(Optional.of(commonService));
+        when(serviceCatalogRepository.findReturnById(commonService.getId()))
+                .thenReturn(Optional.of(toReturn(commonService)));
 
         ServiceCatalogReturnDTO serviceReturn = serviceCatalogService.findById(commonService.getId());
 
@@ -153,7 +163,7 @@ public class ServiceCatalogServiceTest {
 
     @Test
     public void findByIdTest_WhenNotFound() {
-        when(serviceCatalogRepository.findById(commonService.getId())).thenReturn(Optional.empty());
+        when(serviceCatalogRepository.findReturnById(commonService.getId())).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class,
                 () -> serviceCatalogService.findById(commonService.getId()));
@@ -251,4 +261,9 @@ public class ServiceCatalogServiceTest {
                 () -> serviceCatalogService.activateServiceCatalog(commonService.getId()));
     }
 
+    private ServiceCatalogReturnDTO toReturn(ServiceCatalog service) {
+        return new ServiceCatalogReturnDTO(service.getId(), service.getName(), service.getDuration(), service.getPrice(),
+                service.getBusiness().getId(), service.isActivate());
+    }
+
 }
@@ -0,0 +1,138 @@
+package com.example.book;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.book.business.dto.BusinessInputDTO;
+import com.example.book.business.enums.BusinessType;
+import com.example.book.business.model.Business;
+import com.example.book.business.repository.BusinessClosureRepository;
+import com.example.book.business.repository.BusinessRepository;
+import com.example.book.business.repository.WorkingHoursRepository;
+import com.example.book.business.schedule.WorkingHoursCache;
+import com.example.book.business.service.BusinessService;
+import com.example.book.common.exceptions.BusinessException;
+import com.example.book.common.exceptions.ResourceNotFoundException;
+import com.example.book.common.metrics.ServiceMetricsAspect;
+import com.example.book.common.metrics.TenantTags;
+import com.example.book.staff.access.StaffAccessService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class ServiceMetricsAspectTest {
+
+    @Mock
+    private BusinessRepository businessRepository;
+
+    @Mock
+    private WorkingHoursRepository workingHoursRepository;
+
+    @Mock
+    private StaffAccessService staffAccessService;
+
+    @Mock
+    private WorkingHoursCache workingHoursCache;
+
+    @Mock
+    private BusinessClosureRepository businessClosureRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TenantTags tenantTags;
+    private BusinessService businessService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tenantTags = new TenantTags(1, businessRepository, meterRegistry);
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new BusinessService(businessRepository,
+                workingHoursRepository, staffAccessService, workingHoursCache, businessClosureRepository,
+                transactionTemplate));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ServiceMetricsAspect(meterRegistry, tenantTags));
+        businessService = factory.getProxy();
+    }
+
+    @Test
+    public void timeServiceTest_TagsBusinessAndSuccess() {
+        Business business = new Business("Barbearia Profissional", BusinessType.BARBER);
+        business.setId(1);
+        when(businessRepository.findById(1)).thenReturn(Optional.of(business));
+
+        businessService.getBusinessById(1);
+
+        assertEquals(1, meterRegistry.get("service.calls")
+                .tag("service", "BusinessService")
+                .tag("method", "getBusinessById")
+                .tag("outcome", "success")
+                .timer().count());
+    }
+
+    @Test
+    public void timeServiceTest_WhenBusinessException() {
+        when(businessRepository.existsByName("Barbearia")).thenReturn(true);
+
+        assertThrows(BusinessException.class, () -> businessService.createBusiness(
+                new BusinessInputDTO("Barbearia", BusinessType.BARBER)));
+
+        assertEquals(1, meterRegistry.get("service.calls")
+                .tag("method", "createBusiness")
+                .tag("outcome", "business.nome_ja_existente")
+                .timer().count());
+    }
+
+    @Test
+    public void timeServiceTest_WhenOverTenantLimit() {
+        when(businessRepository.existsById(1)).thenReturn(true);
+
+        businessService.listClosures(1, null);
+        businessService.listClosures(1, null);
+        businessService.listClosures(2, null);
+
+        assertEquals(2, meterRegistry.get("service.calls").tag("business", "1").timer().count());
+        assertEquals(1, meterRegistry.get("service.calls").tag("business", TenantTags.OTHER).timer().count());
+        assertEquals(TenantTags.NONE, tenantTags.current());
+    }
+
+    @Test
+    public void timeServiceTest_WhenBusinessUnknown() {
+        when(businessRepository.existsById(99)).thenReturn(false);
+        when(businessRepository.existsById(1)).thenReturn(true);
+        when(businessClosureRepository.findByIdAndBusinessId(5, 1)).thenReturn(Optional.empty());
+
+        //Neither a made-up id nor a failed call takes the only slot
+        businessService.listClosures(99, null);
+        assertThrows(ResourceNotFoundException.class, () -> businessService.removeClosure(1, 5));
+        businessService.listClosures(1, null);
+
+        assertEquals(1, meterRegistry.get("service.calls").tag("business", TenantTags.OTHER)
+                .tag("method", "listClosures").timer().count());
+        assertEquals(1, meterRegistry.get("service.calls").tag("business", TenantTags.OTHER)
+                .tag("method", "removeClosure").timer().count());
+        assertEquals(1, meterRegistry.get("service.calls").tag("business", "1")
+                .tag("method", "listClosures").timer().count());
+    }
+
+    @Test
+    public void outcomeTest_WhenAccentedMessage() {
+        assertEquals("business.horario_inicial_deve_ser_antes_do_final",
+                ServiceMetricsAspect.outcome(new BusinessException("Horário inicial deve ser antes do final.")));
+        assertEquals("IllegalStateException", ServiceMetricsAspect.outcome(new IllegalStateException()));
+    }
+
+}
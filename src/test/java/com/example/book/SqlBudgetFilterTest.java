@@ -0,0 +1,118 @@
+package com.example.book;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.example.book.common.sql.SqlBudgetFilter;
+import com.example.book.common.sql.SqlRequestStats;
+import com.example.book.common.sql.SqlTrackingDataSourcePostProcessor;
+
+import jakarta.servlet.FilterChain;
+
+public class SqlBudgetFilterTest {
+
+    private static final List<String> EXPORT = List.of("/appointments/business/*/export");
+
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sqlbudget;DB_CLOSE_DELAY=-1");
+        dataSource = (DataSource) new SqlTrackingDataSourcePostProcessor(true, 200)
+                .postProcessAfterInitialization(h2, "dataSource");
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS slot");
+            statement.execute("CREATE TABLE slot (id INT PRIMARY KEY, business_id INT)");
+            statement.execute("INSERT INTO slot VALUES (1, 1), (2, 1), (3, 2)");
+        }
+    }
+
+    //One query per business, the shape an N+1 mapper produces
+    private final FilterChain perBusinessQueries = (request, response) -> {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("SELECT id FROM slot WHERE business_id = ?")) {
+            for (int businessId = 1; businessId <= 2; businessId++) {
+                statement.setInt(1, businessId);
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        //Drain
+                    }
+                }
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+        response.getWriter().write("ok");
+    };
+
+    @Test
+    public void doFilterTest_Success() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new SqlBudgetFilter(true, 20, true, EXPORT).doFilter(new MockHttpServletRequest("GET", "/slots"), response,
+                perBusinessQueries);
+
+        assertEquals("2", response.getHeader(SqlBudgetFilter.STATEMENTS_HEADER));
+        assertEquals("3", response.getHeader(SqlBudgetFilter.ROWS_HEADER));
+        assertNotNull(response.getHeader(SqlBudgetFilter.TIME_HEADER));
+        assertEquals("ok", response.getContentAsString());
+        assertNull(SqlRequestStats.current());
+    }
+
+    @Test
+    public void doFilterTest_WhenResponseHeadersOff() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new SqlBudgetFilter(true, 1, false, EXPORT).doFilter(new MockHttpServletRequest("GET", "/slots"), response,
+                perBusinessQueries);
+
+        assertNull(response.getHeader(SqlBudgetFilter.STATEMENTS_HEADER));
+        assertEquals("ok", response.getContentAsString());
+    }
+
+    @Test
+    public void doFilterTest_WhenStreamingRoute() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new SqlBudgetFilter(true, 20, true, EXPORT).doFilter(
+                new MockHttpServletRequest("GET", "/appointments/business/1/export"), response, (request, out) -> {
+                    out.getOutputStream().write("first-row\n".getBytes());
+                    out.flushBuffer();
+                    //Already on the client side, not held in a buffer until the handler returns
+                    assertEquals("first-row\n", response.getContentAsString());
+                    out.getOutputStream().write("second-row\n".getBytes());
+                });
+
+        assertNull(response.getHeader(SqlBudgetFilter.STATEMENTS_HEADER));
+        assertEquals("first-row\nsecond-row\n", response.getContentAsString());
+    }
+
+    @Test
+    public void doFilterTest_WhenOutsideRequest() throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            assertTrue(statement.execute("SELECT COUNT(*) FROM slot"));
+        }
+
+        assertNull(SqlRequestStats.current());
+    }
+
+}
@@ -0,0 +1,277 @@
+package com.example.book;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.book.appointment.dto.AppointmentExportRowDTO;
+import com.example.book.appointment.dto.AppointmentFilterDTO;
+import com.example.book.appointment.enums.AppointmentStatus;
+import com.example.book.appointment.index.StaffScheduleIndex;
+import com.example.book.appointment.lock.StaffBookingLocks;
+import com.example.book.appointment.model.Appointment;
+import com.example.book.appointment.policy.AppointmentValidator;
+import com.example.book.appointment.policy.BarberShopSchedulingPolicy;
+import com.example.book.appointment.repository.AppointmentRepository;
+import com.example.book.appointment.service.AppointmentService;
+import com.example.book.appointment.service.AvailabilityService;
+import com.example.book.business.enums.BusinessType;
+import com.example.book.business.model.Business;
+import com.example.book.business.model.WorkingHours;
+import com.example.book.business.schedule.WorkingHoursCache;
+import com.example.book.common.security.AuthenticatedUser;
+import com.example.book.common.security.LoggedUserService;
+import com.example.book.servicecatalog.model.ServiceCatalog;
+import com.example.book.servicecatalog.service.ServiceCatalogService;
+import com.example.book.staff.access.StaffAccessService;
+import com.example.book.staff.model.Staff;
+import com.example.book.staff.service.StaffService;
+import com.example.book.user.enums.UserRoleEnum;
+import com.example.book.user.model.User;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+//Runs the real services against H2 and fails when a method issues more SQL statements than expected
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "appointment.schedule-index.enabled=false"
+})
+@Import({ AppointmentService.class, AvailabilityService.class, StaffService.class, ServiceCatalogService.class,
+        StaffAccessService.class, LoggedUserService.class, WorkingHoursCache.class, AppointmentValidator.class,
+        BarberShopSchedulingPolicy.class, StaffBookingLocks.class, StaffScheduleIndex.class,
+        SqlStatementCountTest.MetricsConfig.class })
+public class SqlStatementCountTest {
+
+    private static final int APPOINTMENTS_PER_CLIENT = 5;
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private StaffService staffService;
+
+    @Autowired
+    private ServiceCatalogService serviceCatalogService;
+
+    private Statistics statistics;
+
+    private Business business;
+    private User owner;
+    private User client;
+    private ServiceCatalog service;
+    private Appointment appointment;
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        business = persist(new Business("Barbearia Profissional", BusinessType.BARBER));
+        business.setActive(true);
+
+        owner = persist(user("Dono", "dono@email.com", UserRoleEnum.OWNER));
+        client = persist(user("Matheus Cliente", "math@email.com", UserRoleEnum.CLIENT));
+
+        service = persist(new ServiceCatalog("Corte", 30, new BigDecimal("60.00"), business));
+
+        monday = LocalDate.now().with(TemporalAdjusters.next(java.time.DayOfWeek.MONDAY));
+        persist(new WorkingHours(monday.getDayOfWeek(), LocalTime.of(8, 0), LocalTime.of(18, 0), business));
+
+        Staff firstStaff = null;
+        for (int i = 0; i < 3; i++) {
+            User staffUser = persist(user("Barbeiro " + i, "barbeiro" + i + "@email.com", UserRoleEnum.STAFF));
+            Staff staff = new Staff(staffUser, "Barbeiro " + i, business);
+            staff.setActive(true);
+            persist(staff);
+            if (firstStaff == null) {
+                firstStaff = staff;
+            }
+        }
+
+        for (int i = 0; i < APPOINTMENTS_PER_CLIENT; i++) {
+            LocalDateTime start = monday.atTime(9 + i, 0);
+            appointment = persist(new Appointment(business, service, firstStaff, client, start, start.plusMinutes(30)));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void getAppointmentByIdTest_IssuesOneStatement() {
+        loginAs(client);
+
+        appointmentService.getAppointmentById(appointment.getId());
+
+        assertStatements(1);
+    }
+
+    @Test
+    public void listByClientTest_DoesNotDependOnPageSize() {
+        loginAs(client);
+
+        int items = appointmentService.listByClient(filter()).getItems().size();
+
+        assertEquals(APPOINTMENTS_PER_CLIENT, items);
+        assertStatements(1);
+    }
+
+    @Test
+    public void listByBusinessTest_IssuesOneStatement() {
+        loginAs(owner);
+
+        int items = appointmentService.listByBusiness(business.getId(), filter()).getItems().size();
+
+        assertEquals(APPOINTMENTS_PER_CLIENT, items);
+        assertStatements(1);
+    }
+
+    @Test
+    public void cancelAppointmentTest_DoesNotLoadAssociations() {
+        loginAs(client);
+
+        appointmentService.cancelAppointment(appointment.getId());
+        entityManager.flush();
+
+        assertEquals(AppointmentStatus.CANCELED,
+                entityManager.find(Appointment.class, appointment.getId()).getStatus());
+        assertStatements(2);
+    }
+
+    @Test
+    public void listActiveStaffByBusinessTest_IssuesOneStatement() {
+        assertEquals(3, staffService.listActiveStaffByBusiness(business.getId()).size());
+
+        assertStatements(1);
+    }
+
+    @Test
+    public void findServicesByBusinessTest_IssuesOneStatement() {
+        assertEquals(1, serviceCatalogService.findByBusiness(business.getName()).size());
+
+        assertStatements(1);
+    }
+
+    @Test
+    public void findServiceByIdTest_IssuesOneStatement() {
+        serviceCatalogService.findById(service.getId());
+
+        assertStatements(1);
+    }
+
+    @Test
+    public void findAvailabilityTest_DoesNotDependOnStaffCount() {
+        assertEquals(3, availabilityService.findAvailability(business.getId(), service.getId(), monday, monday)
+                .size());
+
+        //Cold cache loads the week and the upcoming closures once
+        assertStatements(6);
+    }
+
+    @Test
+    public void findAvailabilityTest_ReusesCachedWorkingHours() {
+        availabilityService.findAvailability(business.getId(), service.getId(), monday, monday);
+        entityManager.clear();
+        statistics.clear();
+
+        availabilityService.findAvailability(business.getId(), service.getId(), monday, monday);
+
+        assertStatements(4);
+    }
+
+    @Test
+    public void streamExportRowsTest_IncludesAppointmentsWithoutClient() {
+        LocalDateTime start = monday.atTime(16, 0);
+        persist(new Appointment(business, service, appointment.getStaff(), null, start, start.plusMinutes(30)));
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<AppointmentExportRowDTO> rows;
+        try (Stream<AppointmentExportRowDTO> stream = appointmentRepository.streamExportRows(business.getId(),
+                monday.atStartOfDay(), monday.plusDays(1).atStartOfDay())) {
+            rows = stream.toList();
+        }
+
+        assertEquals(APPOINTMENTS_PER_CLIENT + 1, rows.size());
+        assertNull(rows.get(APPOINTMENTS_PER_CLIENT).getClientId());
+        assertStatements(1);
+    }
+
+    private void assertStatements(long expected) {
+        assertEquals(expected, statistics.getPrepareStatementCount(), "SQL statements issued");
+    }
+
+    private AppointmentFilterDTO filter() {
+        return new AppointmentFilterDTO(monday.atStartOfDay(), monday.plusDays(1).atStartOfDay(), null, null, null);
+    }
+
+    private void loginAs(User user) {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(AuthenticatedUser.from(user), null));
+    }
+
+    private User user(String name, String email, UserRoleEnum role) {
+        User user = new User(name, email, "senha123");
+        user.setRole(role);
+        return user;
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+
+}
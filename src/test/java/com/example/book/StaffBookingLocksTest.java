@@ -0,0 +1,100 @@
+package com.example.book;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.book.appointment.lock.StaffBookingLocks;
+import com.example.book.common.exceptions.BusinessException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class StaffBookingLocksTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private StaffBookingLocks staffBookingLocks;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        staffBookingLocks = new StaffBookingLocks(8, 50, meterRegistry);
+    }
+
+    @Test
+    public void withLockTest_ReturnsActionResult() {
+        assertEquals("ok", staffBookingLocks.withLock(1, () -> "ok"));
+        assertEquals(1, meterRegistry.get("appointment.booking.lock.wait").timer().count());
+    }
+
+    @Test
+    public void withLockTest_DifferentStaffDoNotContend() throws Exception {
+        assertNotEquals(staffBookingLocks.stripeIndex(1), staffBookingLocks.stripeIndex(2));
+
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<?> holder = executor.submit(() -> staffBookingLocks.withLock(1, () -> {
+                holding.countDown();
+                await(release);
+                return null;
+            }));
+            holding.await(1, TimeUnit.SECONDS);
+
+            assertEquals("other", staffBookingLocks.withLock(2, () -> "other"));
+
+            release.countDown();
+            holder.get(1, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void withLockTest_WhenSameStaffLockTimesOut() throws Exception {
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            executor.submit(() -> staffBookingLocks.withLock(1, () -> {
+                holding.countDown();
+                await(release);
+                return null;
+            }));
+            holding.await(1, TimeUnit.SECONDS);
+
+            assertThrows(BusinessException.class, () -> staffBookingLocks.withLock(1, () -> "blocked"));
+            assertEquals(1.0, meterRegistry.get("appointment.booking.lock.timeouts").counter().count());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void constructorTest_RegistersQueueGaugePerStripe() {
+        assertEquals(8, meterRegistry.get("appointment.booking.lock.queue").gauges().size());
+        assertTrue(meterRegistry.get("appointment.booking.lock.queue").tag("stripe", "7").gauge().value() >= 0);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.example.book;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.book.appointment.dto.BusyIntervalDTO;
+import com.example.book.appointment.dto.ScheduleIndexReportDTO;
+import com.example.book.appointment.enums.AppointmentStatus;
+import com.example.book.appointment.index.StaffDayBitmap;
+import com.example.book.appointment.index.StaffIntervals;
+import com.example.book.appointment.index.StaffScheduleIndex;
+import com.example.book.appointment.repository.AppointmentRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class StaffScheduleIndexTest {
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    private StaffScheduleIndex staffScheduleIndex;
+    private LocalDateTime tomorrow;
+
+    @BeforeEach
+    void setUp() {
+        staffScheduleIndex = new StaffScheduleIndex(appointmentRepository, true, 1, 1000);
+        tomorrow = LocalDateTime.now().plusDays(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @Test
+    public void rasterizeTest_HalfOpenIntervals() {
+        StaffIntervals intervals = StaffIntervals.of(List.of(
+                new BusyIntervalDTO(1, 4, tomorrow.withHour(10), tomorrow.withHour(11)),
+                new BusyIntervalDTO(2, 4, tomorrow.withHour(8), tomorrow.withHour(9))));
+
+        StaffDayBitmap bitmap = intervals.rasterize(tomorrow.toLocalDate(), 1);
+
+        assertTrue(bitmap.intersects(StaffDayBitmap.covering(1, 10 * 60 + 30, 11 * 60 + 30)));
+        assertTrue(bitmap.intersects(StaffDayBitmap.covering(1, 7 * 60, 12 * 60)));
+        assertFalse(bitmap.intersects(StaffDayBitmap.covering(1, 9 * 60, 10 * 60)));
+        assertFalse(bitmap.intersects(StaffDayBitmap.covering(1, 11 * 60, 12 * 60)));
+        assertEquals(-1, StaffIntervals.EMPTY.rasterize(tomorrow.toLocalDate(), 1).nextSetBit(0));
+    }
+
+    @Test
+    public void dayBitmapTest_WordLevelChecks() {
+        StaffDayBitmap booked = StaffDayBitmap.covering(1, 600, 660);
+        StaffDayBitmap open = StaffDayBitmap.within(15, 485, 1080);
+
+        assertTrue(booked.intersects(StaffDayBitmap.covering(1, 630, 700)));
+        assertFalse(booked.intersects(StaffDayBitmap.covering(1, 660, 700)));
+        assertTrue(open.containsAll(StaffDayBitmap.covering(15, 495, 1080)));
+        assertFalse(open.containsAll(StaffDayBitmap.covering(15, 485, 500)));
+        assertEquals(600, booked.nextSetBit(0));
+        assertEquals(660, booked.nextClearBit(600));
+        assertEquals(-1, booked.nextSetBit(660));
+        assertEquals(1440, new StaffDayBitmap(1).slots());
+    }
+
+    @Test
+    public void bookedSlotsTest_FollowsIndexChanges() {
+        when(appointmentRepository.findBusyIntervalsEndingAfter(eq(AppointmentStatus.SCHEDULED), any()))
+                .thenReturn(List.of(new BusyIntervalDTO(1, 4, tomorrow.withHour(10), tomorrow.withHour(11))));
+        staffScheduleIndex.afterSingletonsInstantiated();
+        StaffDayBitmap lunch = StaffDayBitmap.covering(1, 12 * 60, 13 * 60);
+
+        assertTrue(staffScheduleIndex.bookedSlots(4, tomorrow.toLocalDate()).get()
+                .intersects(StaffDayBitmap.covering(1, 10 * 60 + 30, 11 * 60)));
+        assertFalse(staffScheduleIndex.bookedSlots(4, tomorrow.toLocalDate()).get().intersects(lunch));
+
+        staffScheduleIndex.add(4, 2, tomorrow.withHour(12), tomorrow.withHour(13));
+        assertTrue(staffScheduleIndex.bookedSlots(4, tomorrow.toLocalDate()).get().intersects(lunch));
+
+        staffScheduleIndex.remove(4, 2);
+        assertFalse(staffScheduleIndex.bookedSlots(4, tomorrow.toLocalDate()).get().intersects(lunch));
+    }
+
+    @Test
+    public void rasterizeTest_ClipsIntervalsCrossingMidnight() {
+        StaffIntervals intervals = StaffIntervals.of(List.of(
+                new BusyIntervalDTO(1, 4, tomorrow.minusHours(1), tomorrow.plusHours(1))));
+
+        StaffDayBitmap bitmap = intervals.rasterize(tomorrow.toLocalDate(), 1);
+
+        assertEquals(0, bitmap.nextSetBit(0));
+        assertEquals(60, bitmap.nextClearBit(0));
+    }
+
+    @Test
+    public void bookedSlotsTest_EmptyBeforeWarmUp() {
+        assertTrue(staffScheduleIndex.bookedSlots(4, tomorrow.toLocalDate()).isEmpty());
+    }
+
+    @Test
+    public void warmUpTest_LoadsScheduledAppointments() {
+        when(appointmentRepository.findBusyIntervalsEndingAfter(eq(AppointmentStatus.SCHEDULED), any()))
+                .thenReturn(List.of(new BusyIntervalDTO(1, 4, tomorrow.withHour(10), tomorrow.withHour(11))));
+
+        staffScheduleIndex.afterSingletonsInstantiated();
+
+        assertTrue(booked(4, 10 * 60, 10 * 60 + 30));
+        assertEquals(-1, staffScheduleIndex.bookedSlots(5, tomorrow.toLocalDate()).get().nextSetBit(0));
+    }
+
+    @Test
+    public void addAndRemoveTest_KeepsIndexInSync() {
+        when(appointmentRepository.findBusyIntervalsEndingAfter(eq(AppointmentStatus.SCHEDULED), any()))
+                .thenReturn(List.of());
+        staffScheduleIndex.afterSingletonsInstantiated();
+
+        staffScheduleIndex.add(4, 7, tomorrow.withHour(14), tomorrow.withHour(15));
+        assertTrue(booked(4, 14 * 60, 16 * 60));
+
+        staffScheduleIndex.remove(4, 7);
+        assertFalse(booked(4, 14 * 60, 16 * 60));
+    }
+
+    @Test
+    public void reconcileTest_WhenChangedOnAnotherInstance() {
+        when(appointmentRepository.findBusyIntervalsEndingAfter(eq(AppointmentStatus.SCHEDULED), any()))
+                .thenReturn(List.of(new BusyIntervalDTO(1, 4, tomorrow.withHour(10), tomorrow.withHour(11))))
+                .thenReturn(List.of(new BusyIntervalDTO(2, 5, tomorrow.withHour(14), tomorrow.withHour(15))));
+        staffScheduleIndex.afterSingletonsInstantiated();
+
+        //Appointment 1 canceled and appointment 2 booked elsewhere
+        staffScheduleIndex.reconcile();
+
+        assertFalse(booked(4, 10 * 60, 11 * 60));
+        assertTrue(booked(5, 14 * 60, 15 * 60));
+    }
+
+    @Test
+    public void verifyTest_ReportsAndRepairsDrift() {
+        when(appointmentRepository.findBusyIntervalsEndingAfter(eq(AppointmentStatus.SCHEDULED), any()))
+                .thenReturn(List.of(new BusyIntervalDTO(1, 4, tomorrow.withHour(10), tomorrow.withHour(11))));
+        staffScheduleIndex.afterSingletonsInstantiated();
+        staffScheduleIndex.add(5, 9, tomorrow.withHour(10), tomorrow.withHour(11));
+
+        ScheduleIndexReportDTO report = staffScheduleIndex.verify(true);
+
+        assertEquals(List.of(5), report.getInconsistentStaffIds());
+        assertEquals(1, report.getDatabaseAppointments());
+        assertEquals(2, report.getIndexedAppointments());
+        assertTrue(report.isRepaired());
+        assertFalse(booked(5, 10 * 60, 11 * 60));
+        assertTrue(staffScheduleIndex.verify(false).getInconsistentStaffIds().isEmpty());
+    }
+
+    private boolean booked(Integer staffId, int fromMinute, int toMinute) {
+        return staffScheduleIndex.bookedSlots(staffId, tomorrow.toLocalDate()).get()
+                .intersects(StaffDayBitmap.covering(1, fromMinute, toMinute));
+    }
+
+}
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -18,6 +19,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.example.book.appointment.enums.AppointmentStatus;
+import com.example.book.appointment.repository.AppointmentRepository;
 import com.example.book.business.enums.BusinessType;
 import com.example.book.business.model.Business;
 import com.example.book.business.repository.BusinessRepository;
@@ -44,6 +47,9 @@ public class StaffServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
     @InjectMocks
     private StaffService staffService;
 
@@ -149,7 +155,7 @@ public class StaffServiceTest {
 
     @Test
     public void findByIdTest_Success() {
-        when(staffRepository.findById(commonStaff.getId())).thenReturn(Optional.of(commonStaff));
+        when(staffRepository.findReturnById(commonStaff.getId())).thenReturn(Optional.of(toReturn(commonStaff)));
 
         StaffReturnDTO staffReturn = staffService.findById(commonStaff.getId());
 
@@ -158,15 +164,15 @@ public class StaffServiceTest {
 
     @Test
     public void findByIdTest_WhenNotFound() {
-        when(staffRepository.findById(commonStaff.getId())).thenReturn(Optional.empty());
+        when(staffRepository.findReturnById(commonStaff.getId())).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> staffService.findById(commonStaff.getId()));
     }
 
     @Test
     public void findByIdAndBusinessIdTest_Success() {
-        when(staffRepository.findByIdAndBusinessId(commonStaff.getId(), commonBusiness.getId()))
-                .thenReturn(Optional.of(commonStaff));
+        when(staffRepository.findReturnByIdAndBusinessId(commonStaff.getId(), commonBusiness.getId()))
+                .thenReturn(Optional.of(toReturn(commonStaff)));
 
         StaffReturnDTO staffReturn = staffService.findByIdAndBusinessId(commonStaff.getId(), commonBusiness.getId());
 
@@ -175,7 +181,7 @@ public class StaffServiceTest {
 
     @Test
     public void findByIdAndBusinessIdTest_WhenNotFound() {
-        when(staffRepository.findByIdAndBusinessId(commonStaff.getId(), commonBusiness.getId()))
+        when(staffRepository.findReturnByIdAndBusinessId(commonStaff.getId(), commonBusiness.getId()))
                 .thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class,
@@ -184,7 +190,8 @@ public class StaffServiceTest {
 
     @Test
     public void listActivateStaffByBusinessTest_Success() {
-        when(staffRepository.findByBusinessIdAndActiveTrue(commonBusiness.getId())).thenReturn(List.of(commonStaff));
+        when(staffRepository.findActiveReturnByBusinessId(commonBusiness.getId()))
+                .thenReturn(List.of(toReturn(commonStaff)));
 
         List<StaffReturnDTO> staffReturn = staffService.listActiveStaffByBusiness(commonBusiness.getId());
         assertEquals(1, staffReturn.size());
@@ -226,6 +233,16 @@ public class StaffServiceTest {
         assertFalse(commonStaff.isActive());
     }
 
+    @Test
+    public void desactivateStaffTest_WhenStaffHasFutureAppointments() {
+        when(staffRepository.findById(commonStaff.getId())).thenReturn(Optional.of(commonStaff));
+        when(appointmentRepository.existsByStaffIdAndStatusAndStartTimeAfter(eq(commonStaff.getId()),
+                eq(AppointmentStatus.SCHEDULED), any())).thenReturn(true);
+
+        assertThrows(BusinessException.class, () -> staffService.deactivateStaff(commonStaff.getId()));
+        assertTrue(commonStaff.isActive());
+    }
+
     @Test
     public void desactivateStaffTest_WhenNotFond() {
         when(staffRepository.findById(commonStaff.getId())).thenReturn(Optional.empty());
@@ -233,4 +250,8 @@ public class StaffServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> staffService.deactivateStaff(commonStaff.getId()));
     }
 
+    private StaffReturnDTO toReturn(Staff staff) {
+        return new StaffReturnDTO(staff.getId(), staff.getPublicName(), staff.isActive(), staff.getBusiness().getId());
+    }
+
 }
@@ -0,0 +1,102 @@
+package com.example.book;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.book.auth.service.AuthRateLimiter;
+import com.example.book.common.exceptions.TooManyRequestsException;
+import com.example.book.common.ratelimit.TokenBucketLimiter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TokenBucketLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong clock;
+    private TokenBucketLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+        limiter = new TokenBucketLimiter("login.ip", 3, 6, 100, meterRegistry, clock::get);
+    }
+
+    @Test
+    public void tryAcquireTest_AllowsBurstUpToCapacity() {
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+
+        assertEquals(TimeUnit.SECONDS.toNanos(10), limiter.tryAcquire("10.0.0.1"));
+        assertEquals(1.0, meterRegistry.get("auth.rate-limit.rejected").tag("limiter", "login.ip").counter().count());
+    }
+
+    @Test
+    public void tryAcquireTest_RefillsOverTime() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("10.0.0.1");
+        }
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        assertTrue(limiter.tryAcquire("10.0.0.1") > 0);
+    }
+
+    @Test
+    public void tryAcquireTest_KeysAreIndependent() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("10.0.0.1");
+        }
+
+        assertEquals(0, limiter.tryAcquire("10.0.0.2"));
+    }
+
+    @Test
+    public void tryAcquireTest_ConcurrentCallersNeverExceedCapacity() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Long>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < 64; i++) {
+                results.add(executor.submit(() -> limiter.tryAcquire("10.0.0.1")));
+            }
+
+            long granted = 0;
+            for (Future<Long> result : results) {
+                if (result.get(1, TimeUnit.SECONDS) == 0) {
+                    granted++;
+                }
+            }
+            assertEquals(3, granted);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void checkLoginTest_WhenEmailExhaustedFromManyIps() {
+        AuthRateLimiter authRateLimiter = new AuthRateLimiter(true, 100, 20, 10, 2, 1, 5, 2, meterRegistry);
+
+        authRateLimiter.checkLogin("10.0.0.1", "math@email.com");
+        authRateLimiter.checkLogin("10.0.0.2", "Math@Email.com ");
+
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> authRateLimiter.checkLogin("10.0.0.3", "math@email.com"));
+        assertTrue(ex.getRetryAfterSeconds() > 0);
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.example.book;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.book.common.security.BloomFilter;
+import com.example.book.common.security.JwtService;
+import com.example.book.common.security.TokenRevocationList;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TokenRevocationListTest {
+
+    private static final long LIFETIME_MILLIS = TimeUnit.MINUTES.toMillis(15);
+
+    private AtomicLong clock;
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+        revocationList = new TokenRevocationList(LIFETIME_MILLIS, 1_000, 0.01, new SimpleMeterRegistry(),
+                clock::get);
+    }
+
+    @Test
+    public void isRevokedTest_WhenTokenIdRevoked() {
+        revocationList.revokeToken("jti-1");
+
+        assertTrue(revocationList.isRevoked(token(1, 0, "jti-1")));
+        assertFalse(revocationList.isRevoked(token(1, 0, "jti-2")));
+    }
+
+    @Test
+    public void isRevokedTest_WhenUserVersionOutdated() {
+        revocationList.revokeUser(1, 3);
+
+        assertTrue(revocationList.isRevoked(token(1, 2, "jti-1")));
+        assertFalse(revocationList.isRevoked(token(1, 3, "jti-2")));
+        assertFalse(revocationList.isRevoked(token(2, 0, "jti-3")));
+    }
+
+    @Test
+    public void isRevokedTest_KeepsEntriesForOneFullLifetime() {
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(14));
+        revocationList.revokeToken("jti-1");
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        assertTrue(revocationList.isRevoked(token(1, 0, "jti-1")));
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(15));
+        assertFalse(revocationList.isRevoked(token(1, 0, "jti-1")));
+        assertEquals(0, revocationList.size());
+    }
+
+    @Test
+    public void bloomFilterTest_NoFalseNegativesAndFewFalsePositives() {
+        BloomFilter bloom = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloom.add("revoked-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(bloom.mightContain("revoked-" + i));
+            if (bloom.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    private JwtService.VerifiedToken token(Integer userId, int version, String tokenId) {
+        return new JwtService.VerifiedToken("math@email.com", userId, "CLIENT", version, tokenId, null);
+    }
+
+}
@@ -23,6 +23,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.example.book.common.exceptions.BusinessException;
 import com.example.book.common.exceptions.ResourceNotFoundException;
+import com.example.book.common.security.TokenRevocationList;
 import com.example.book.user.dto.ChangePasswordDTO;
 import com.example.book.user.dto.UserInputDTO;
 import com.example.book.user.dto.UserReturnDTO;
@@ -40,6 +41,9 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder bcrypt;
 
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+
     @InjectMocks
     private UserService userService;
 
@@ -177,6 +181,17 @@ public class UserServiceTest {
         verify(userRepository).save(commonUser);
     }
 
+    @Test
+    public void changeUserRoleTest_RevokesIssuedTokens() {
+        when(userRepository.findById(commonUser.getId())).thenReturn(Optional.of(commonUser));
+        int version = commonUser.getTokenVersion();
+
+        userService.changeUserRole(commonUser.getId(), UserRoleEnum.STAFF);
+
+        assertEquals(version + 1, commonUser.getTokenVersion());
+        verify(tokenRevocationList).revokeUser(commonUser.getId(), version + 1);
+    }
+
     @Test
     public void changeUserRoleTest_WhenUserNotFound() {
         when(userRepository.findById(commonUser.getId())).thenReturn(Optional.empty());
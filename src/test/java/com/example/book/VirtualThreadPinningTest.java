@@ -0,0 +1,146 @@
+package com.example.book;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.book.appointment.lock.StaffBookingLocks;
+import com.example.book.business.repository.BusinessClosureRepository;
+import com.example.book.business.repository.WorkingHoursRepository;
+import com.example.book.business.schedule.WorkingHoursCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+//Runs the lock and cache paths of a booking request on virtual threads while JFR records jdk.VirtualThreadPinned,
+//with a sleep standing in for the JDBC round trip. Any pinning fails the test with the pinned stacks
+@ExtendWith(MockitoExtension.class)
+public class VirtualThreadPinningTest {
+
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+    private static final int TASKS = 50;
+
+    @Mock
+    private WorkingHoursRepository workingHoursRepository;
+
+    @Mock
+    private BusinessClosureRepository businessClosureRepository;
+
+    @FunctionalInterface
+    private interface Workload {
+        void run() throws Exception;
+    }
+
+    private static List<RecordedEvent> recordPinning(Workload workload) throws Exception {
+        List<RecordedEvent> pinned = new CopyOnWriteArrayList<>();
+
+        try (RecordingStream stream = new RecordingStream()) {
+            stream.enable(PINNED).withThreshold(Duration.ZERO).withStackTrace();
+            stream.onEvent(PINNED, pinned::add);
+            stream.startAsync();
+
+            workload.run();
+
+            //Waits until every recorded event has been delivered
+            stream.stop();
+        }
+
+        return pinned;
+    }
+
+    private static void runOnVirtualThreads(IntConsumer task) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < TASKS; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> task.accept(index)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    private static void blockingCall() {
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String describe(List<RecordedEvent> pinned) {
+        return pinned.stream()
+                .map(event -> event.getStackTrace() == null ? "(no stack)" : event.getStackTrace().getFrames().stream()
+                        .limit(40)
+                        .map(VirtualThreadPinningTest::frame)
+                        .collect(Collectors.joining("\n    ", "pinned at\n    ", "")))
+                .distinct()
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    @Test
+    public void recordPinningTest_WhenBlockingInsideSynchronized() throws Exception {
+        Object monitor = new Object();
+
+        List<RecordedEvent> pinned = recordPinning(() -> runOnVirtualThreads(i -> {
+            synchronized (monitor) {
+                blockingCall();
+            }
+        }));
+
+        assertFalse(pinned.isEmpty());
+    }
+
+    @Test
+    public void scheduleTest_WhenLoadingOnVirtualThreads() throws Exception {
+        when(workingHoursRepository.findByBusinessId(anyInt())).thenAnswer(invocation -> {
+            blockingCall();
+            return List.of();
+        });
+        when(businessClosureRepository.findByBusinessIdAndDateGreaterThanEqualOrderByDate(anyInt(), any()))
+                .thenReturn(List.of());
+        WorkingHoursCache workingHoursCache = new WorkingHoursCache(workingHoursRepository,
+                businessClosureRepository, 100, 10, 5000, new SimpleMeterRegistry());
+
+        List<RecordedEvent> pinned = recordPinning(() -> runOnVirtualThreads(i -> workingHoursCache.schedule(i % 5)));
+
+        assertTrue(pinned.isEmpty(), () -> describe(pinned));
+    }
+
+    @Test
+    public void withLockTest_WhenWaitingOnVirtualThreads() throws Exception {
+        StaffBookingLocks locks = new StaffBookingLocks(4, 5000, new SimpleMeterRegistry());
+
+        List<RecordedEvent> pinned = recordPinning(() -> runOnVirtualThreads(i -> locks.withLock(i % 8, () -> {
+            blockingCall();
+            return null;
+        })));
+
+        assertTrue(pinned.isEmpty(), () -> describe(pinned));
+    }
+
+}
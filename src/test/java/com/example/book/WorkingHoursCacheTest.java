@@ -0,0 +1,133 @@
+package com.example.book;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.book.business.enums.BusinessType;
+import com.example.book.business.model.Business;
+import com.example.book.business.model.BusinessClosure;
+import com.example.book.business.model.WorkingHours;
+import com.example.book.business.repository.BusinessClosureRepository;
+import com.example.book.business.repository.WorkingHoursRepository;
+import com.example.book.business.schedule.CompiledSchedule;
+import com.example.book.business.schedule.WorkingHoursCache;
+import com.example.book.common.exceptions.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class WorkingHoursCacheTest {
+
+    @Mock
+    private WorkingHoursRepository workingHoursRepository;
+
+    @Mock
+    private BusinessClosureRepository businessClosureRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private WorkingHoursCache workingHoursCache;
+
+    private Business business;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        workingHoursCache = new WorkingHoursCache(workingHoursRepository, businessClosureRepository, 100, 10, 5000,
+                meterRegistry);
+
+        business = new Business("Barbearia Profissional", BusinessType.BARBER);
+        business.setId(1);
+    }
+
+    @Test
+    public void scheduleTest_LoadsWholeWeekOnce() {
+        //2030-01-07 is a monday
+        LocalDate monday = LocalDate.of(2030, 1, 7);
+        when(workingHoursRepository.findByBusinessId(1)).thenReturn(List.of(
+                new WorkingHours(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(18, 0), business),
+                new WorkingHours(DayOfWeek.SATURDAY, LocalTime.of(8, 0), LocalTime.of(12, 0), business)));
+        when(businessClosureRepository.findByBusinessIdAndDateGreaterThanEqualOrderByDate(eq(1), any()))
+                .thenReturn(List.of(new BusinessClosure(monday.plusWeeks(1), null, null, "Feriado", business)));
+
+        CompiledSchedule first = workingHoursCache.schedule(1);
+        CompiledSchedule second = workingHoursCache.schedule(1);
+
+        assertSame(first, second);
+        assertTrue(first.isOpen(monday, 9 * 60, 18 * 60));
+        assertTrue(first.isOpen(monday.plusDays(5), 8 * 60, 12 * 60));
+        assertFalse(first.hasHours(DayOfWeek.SUNDAY));
+        assertFalse(first.isOpen(monday.plusWeeks(1), 9 * 60, 10 * 60));
+        verify(workingHoursRepository, times(1)).findByBusinessId(1);
+        verify(businessClosureRepository, times(1)).findByBusinessIdAndDateGreaterThanEqualOrderByDate(eq(1), any());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "working-hours").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    public void invalidateTest_ReloadsOnNextRead() {
+        when(workingHoursRepository.findByBusinessId(1)).thenReturn(List.of());
+
+        assertFalse(workingHoursCache.schedule(1).hasHours(DayOfWeek.MONDAY));
+        workingHoursCache.invalidate(1);
+        workingHoursCache.schedule(1);
+
+        verify(workingHoursRepository, times(2)).findByBusinessId(1);
+    }
+
+    @Test
+    public void scheduleTest_WhenLoaderThrowsError() {
+        when(workingHoursRepository.findByBusinessId(1))
+                .thenThrow(new OutOfMemoryError("Java heap space"))
+                .thenReturn(List.of());
+
+        assertThrows(OutOfMemoryError.class, () -> workingHoursCache.schedule(1));
+
+        //The failed load is not left behind for the next request
+        assertFalse(workingHoursCache.schedule(1).hasHours(DayOfWeek.MONDAY));
+        verify(workingHoursRepository, times(2)).findByBusinessId(1);
+    }
+
+    @Test
+    public void scheduleTest_WhenLoaderNeverCompletes() throws Exception {
+        WorkingHoursCache cache = new WorkingHoursCache(workingHoursRepository, businessClosureRepository, 100, 10, 100,
+                meterRegistry);
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(workingHoursRepository.findByBusinessId(1)).thenAnswer(invocation -> {
+            loaderStarted.countDown();
+            release.await();
+            return List.of();
+        });
+
+        CompletableFuture<CompiledSchedule> loader = CompletableFuture.supplyAsync(() -> cache.schedule(1));
+        loaderStarted.await();
+
+        assertThrows(ServiceUnavailableException.class, () -> cache.schedule(1));
+
+        release.countDown();
+        loader.join();
+    }
+
+}